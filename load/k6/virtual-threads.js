@@ -0,0 +1,49 @@
+// Charge en rafale sur les endpoints de lecture (JDBC bloquant), pour comparer les deux
+// modes d'execution du build java21 sur le meme jar et la meme base MySQL :
+//
+//   mvn -Pjava21 -DskipTests package
+//   java -jar target/achat-1.0.jar --achat.virtual-threads.enabled=false   # threads plateforme
+//   k6 run --summary-export=platform.json load/k6/virtual-threads.js
+//   java -jar target/achat-1.0.jar --achat.virtual-threads.enabled=true    # threads virtuels
+//   k6 run --summary-export=virtual.json load/k6/virtual-threads.js
+//
+// Comparer http_reqs (debit), http_req_duration p(99) et http_req_failed (503 de la cloison)
+// entre les deux resumes ; cote serveur : achat_bulkhead_rejected_total, hikaricp_connections_pending.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8089/SpringMVC';
+const PEAK = parseInt(__ENV.PEAK_VUS || '1000', 10);
+
+export const options = {
+    scenarios: {
+        rafale: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: PEAK / 10 },
+                { duration: '10s', target: PEAK },
+                { duration: '1m', target: PEAK },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // indicatif : le resume affiche les valeurs meme si le seuil est franchi
+        http_req_duration: ['p(99)<2000'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+const ENDPOINTS = [
+    '/stock/retrieve-stocks-page?size=50',
+    '/produit/retrieve-produits-page?size=50',
+    '/fournisseur/retrieve-fournisseurs-page?size=50',
+    '/facture/retrieve-factures-page?size=50',
+];
+
+export default function () {
+    const res = http.get(BASE + ENDPOINTS[Math.floor(Math.random() * ENDPOINTS.length)]);
+    check(res, { 'statut 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,56 @@
+package tn.esprit.rh.achat.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Threads virtuels (Java 21, profil Maven java21 : sources src/java21/java) pour :
+ * <ul>
+ * <li>le traitement des requêtes Tomcat, à la place du pool server.tomcat.threads.max</li>
+ * <li>applicationTaskExecutor : @Async et réponses asynchrones Spring MVC (export StreamingResponseBody)</li>
+ * <li>taskScheduler : tâches @Scheduled (archivage, suggestions de réapprovisionnement...)</li>
+ * </ul>
+ * Le plafond de concurrence n'est plus le nombre de threads : il est tenu par BulkheadFilter,
+ * déclaré ici (achat.bulkhead.enabled=false le retire), et le pool Hikari. achat.virtual-threads.enabled=false revient aux threads plateforme sur
+ * le même binaire, pour comparer les deux modes (load/k6/virtual-threads.js).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "achat.virtual-threads", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-v-", 0).factory()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "achat.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public BulkheadFilter bulkheadFilter() {
+        return new BulkheadFilter();
+    }
+
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-v-", 0).factory()));
+    }
+
+    @Bean(name = ScheduledAnnotationBeanPostProcessor.DEFAULT_TASK_SCHEDULER_BEAN_NAME)
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:1}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-v-", 0).factory());
+        return scheduler;
+    }
+}
@@ -0,0 +1,129 @@
+package tn.esprit.rh.achat.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lance les benchmarks JMH puis, selon le mode :
+ * <ul>
+ * <li>{@code record} : remplace le fichier de référence par les résultats ;</li>
+ * <li>{@code compare} : compare chaque débit à la référence et se termine en erreur
+ * si l'un d'eux baisse de plus du seuil (p.ex. 0.10 = 10 %). Sans référence (fichier
+ * absent ou vide), rien n'est mesuré : le saut est annoncé, la comparaison ne passe
+ * jamais à vide en se faisant passer pour un succès.</li>
+ * </ul>
+ * Le profileur GC est toujours actif : l'allocation par opération (gc.alloc.rate.norm)
+ * est affichée à côté du débit, à titre indicatif (elle n'entre pas dans le seuil).
+ * Usage : BenchmarkRunner &lt;record|compare&gt; &lt;baseline.json&gt; &lt;result.json&gt; &lt;seuil&gt; &lt;regex&gt;
+ * (voir le profil Maven "benchmark").
+ */
+public final class BenchmarkRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args[0];
+        Path baseline = Paths.get(args[1]);
+        Path result = Paths.get(args[2]);
+        double threshold = Double.parseDouble(args[3]);
+        String include = args[4];
+
+        Map<String, Double> reference = new LinkedHashMap<>();
+        if (!"record".equals(mode)) {
+            reference = Files.exists(baseline) ? scores(baseline) : reference;
+            if (reference.isEmpty()) {
+                System.out.println("COMPARAISON IGNORÉE : référence absente ou vide (" + baseline
+                        + "), à enregistrer avec -Djmh.mode=record sur l'agent de build");
+                return;
+            }
+        }
+
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        if ("record".equals(mode)) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Référence enregistrée dans " + baseline);
+            return;
+        }
+
+        Map<String, Double> allocations = allocations(result);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> courant : scores(result).entrySet()) {
+            Double attendu = reference.get(courant.getKey());
+            double octets = allocations.getOrDefault(courant.getKey(), Double.NaN);
+            if (attendu == null) {
+                System.out.printf("%-90s %14.1f %12.0f B/op  (pas de référence)%n", courant.getKey(), courant.getValue(), octets);
+                continue;
+            }
+            double ratio = courant.getValue() / attendu;
+            System.out.printf("%-90s %14.1f %12.0f B/op  %+.1f %%%n", courant.getKey(), courant.getValue(), octets,
+                    (ratio - 1) * 100);
+            if (ratio < 1 - threshold) {
+                regressions.add(courant.getKey());
+            }
+        }
+        if (!regressions.isEmpty()) {
+            System.err.println("Régression de débit au-delà de " + threshold * 100 + " % : " + regressions);
+            System.exit(1);
+        }
+    }
+
+    /** débit par benchmark et jeu de paramètres, lu dans un fichier de résultats JMH au format JSON */
+    static Map<String, Double> scores(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            scores.put(key(run), run.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+
+    /** octets alloués par opération, quand le profileur GC a produit la métrique */
+    static Map<String, Double> allocations(Path file) throws IOException {
+        Map<String, Double> allocations = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            JsonNode norm = run.path("secondaryMetrics").path("gc.alloc.rate.norm");
+            if (!norm.isMissingNode()) {
+                allocations.put(key(run), norm.get("score").asDouble());
+            }
+        }
+        return allocations;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+        JsonNode params = run.get("params");
+        if (params != null) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext();) {
+                Map.Entry<String, JsonNode> param = it.next();
+                key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+        }
+        return key.toString();
+    }
+}
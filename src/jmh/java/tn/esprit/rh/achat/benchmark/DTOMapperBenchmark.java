@@ -0,0 +1,56 @@
+package tn.esprit.rh.achat.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.util.DTOMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion entités -> DTO des listes renvoyées par les endpoints retrieve-all-*.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+    @Param({ "100", "10000" })
+    int size;
+
+    private final DTOMapper dtoMapper = new DTOMapper();
+    private List<Facture> factures;
+    private List<Produit> produits;
+
+    @Setup
+    public void setUp() {
+        factures = Fixtures.factures(size);
+        produits = Fixtures.produits(size);
+    }
+
+    @Benchmark
+    public List<FactureDTO> toFactureDTOList() {
+        return dtoMapper.toFactureDTOList(factures);
+    }
+
+    @Benchmark
+    public List<ProduitDTO> toProduitDTOList() {
+        return dtoMapper.toProduitDTOList(produits);
+    }
+}
@@ -0,0 +1,53 @@
+package tn.esprit.rh.achat.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.util.DTOMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON d'une liste de FactureDTO avec la configuration Jackson de Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactureDTOJsonBenchmark {
+
+    @Param({ "100", "10000" })
+    int size;
+
+    private List<FactureDTO> factures;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        factures = new DTOMapper().toFactureDTOList(Fixtures.factures(size));
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, FactureDTO.class));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(factures);
+    }
+}
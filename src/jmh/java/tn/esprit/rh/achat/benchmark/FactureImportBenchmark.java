@@ -0,0 +1,79 @@
+package tn.esprit.rh.achat.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tn.esprit.rh.achat.AchatApplication;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.repositories.ProduitRepository;
+import tn.esprit.rh.achat.services.IFactureService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import en masse de factures (IFactureService.addFactures) de bout en bout sur H2 :
+ * chargement groupé des produits, calcul des montants et insertions par lots.
+ * La configuration est celle des tests (src/test/resources/application.properties).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactureImportBenchmark {
+
+    private static final int NB_PRODUITS = 500;
+    private static final int LIGNES_PAR_FACTURE = 10;
+
+    @Param({ "100" })
+    int factures;
+
+    private ConfigurableApplicationContext context;
+    private IFactureService factureService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AchatApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        factureService = context.getBean(IFactureService.class);
+        List<Produit> produits = Fixtures.produits(NB_PRODUITS);
+        for (Produit produit : produits) {
+            produit.setIdProduit(null);
+        }
+        context.getBean(ProduitRepository.class).saveAll(produits);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Facture> addFactures() {
+        List<Facture> lot = new ArrayList<>(factures);
+        for (int i = 0; i < factures; i++) {
+            Facture facture = new Facture();
+            facture.setDetailsFacture(Fixtures.details(LIGNES_PAR_FACTURE, NB_PRODUITS));
+            lot.add(facture);
+        }
+        return factureService.addFactures(lot);
+    }
+}
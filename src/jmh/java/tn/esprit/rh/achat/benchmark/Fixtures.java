@@ -0,0 +1,84 @@
+package tn.esprit.rh.achat.benchmark;
+
+import tn.esprit.rh.achat.entities.DetailFacture;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.util.Money;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Jeux de données en mémoire, déterministes, partagés par les benchmarks.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static List<Produit> produits(int n) {
+        Random random = new Random(1);
+        List<Produit> produits = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            Produit produit = new Produit();
+            produit.setIdProduit((long) i);
+            produit.setCodeProduit("P" + i);
+            produit.setLibelleProduit("Produit " + i);
+            produit.setPrix(Money.of(random.nextInt(100_000) / 100.0));
+            produit.setDateCreation(new Date());
+            produits.add(produit);
+        }
+        return produits;
+    }
+
+    public static List<Facture> factures(int n) {
+        Random random = new Random(2);
+        List<Facture> factures = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            Facture facture = new Facture();
+            facture.setIdFacture((long) i);
+            facture.setMontantFacture(random.nextInt(10_000_000));
+            facture.setMontantRemise(random.nextInt(100_000));
+            facture.setDateCreationFacture(new Date());
+            facture.setDateDerniereModificationFacture(new Date());
+            facture.setArchivee(i % 10 == 0);
+            factures.add(facture);
+        }
+        return factures;
+    }
+
+    /** lignes de facture ne référençant que l'identifiant du produit, comme à l'import */
+    public static Set<DetailFacture> details(int n, int nbProduits) {
+        Random random = new Random(3);
+        Set<DetailFacture> details = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            Produit ref = new Produit();
+            ref.setIdProduit((long) random.nextInt(nbProduits) + 1);
+            DetailFacture detail = new DetailFacture();
+            detail.setProduit(ref);
+            detail.setQteCommandee(random.nextInt(50) + 1);
+            detail.setPourcentageRemise(random.nextInt(20));
+            details.add(detail);
+        }
+        return details;
+    }
+
+    public static List<Stock> stocks(int n) {
+        Random random = new Random(4);
+        List<Stock> stocks = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            Stock stock = new Stock();
+            stock.setIdStock((long) i);
+            stock.setLibelleStock("Stock " + i);
+            stock.setQteMin(100);
+            stock.setQte(random.nextInt(200));
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+}
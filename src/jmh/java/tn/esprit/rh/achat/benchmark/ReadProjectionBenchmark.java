@@ -0,0 +1,111 @@
+package tn.esprit.rh.achat.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tn.esprit.rh.achat.AchatApplication;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
+import tn.esprit.rh.achat.entities.CategorieFournisseur;
+import tn.esprit.rh.achat.entities.DetailFournisseur;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Fournisseur;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.FournisseurRepository;
+import tn.esprit.rh.achat.services.IFactureService;
+import tn.esprit.rh.achat.services.IFournisseurService;
+import tn.esprit.rh.achat.util.DTOMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoints de liste sur H2 : entités gérées puis DTOMapper (chemin d'origine, conservé ici
+ * comme point de comparaison) contre projections DTO construites par la requête.
+ * L'allocation par requête se lit dans la colonne B/op (profileur GC de BenchmarkRunner).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadProjectionBenchmark {
+
+    @Param({ "1000" })
+    int lignes;
+
+    private ConfigurableApplicationContext context;
+    private FactureRepository factureRepository;
+    private FournisseurRepository fournisseurRepository;
+    private IFactureService factureService;
+    private IFournisseurService fournisseurService;
+    private DTOMapper dtoMapper;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AchatApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        factureRepository = context.getBean(FactureRepository.class);
+        fournisseurRepository = context.getBean(FournisseurRepository.class);
+        factureService = context.getBean(IFactureService.class);
+        fournisseurService = context.getBean(IFournisseurService.class);
+        dtoMapper = context.getBean(DTOMapper.class);
+
+        List<Facture> factures = Fixtures.factures(lignes);
+        for (Facture facture : factures) {
+            facture.setIdFacture(null);
+        }
+        factureRepository.saveAll(factures);
+        List<Fournisseur> fournisseurs = new ArrayList<>(lignes);
+        for (int i = 0; i < lignes; i++) {
+            Fournisseur fournisseur = new Fournisseur();
+            fournisseur.setCode("F" + i);
+            fournisseur.setLibelle("Fournisseur " + i);
+            fournisseur.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+            fournisseur.setDetailFournisseur(new DetailFournisseur());
+            fournisseurs.add(fournisseur);
+        }
+        fournisseurRepository.saveAll(fournisseurs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FactureDTO> facturesEntitesPuisMapper() {
+        return dtoMapper.toFactureDTOList(factureRepository.findAll());
+    }
+
+    @Benchmark
+    public List<FactureDTO> facturesProjection() {
+        return factureService.retrieveAllFactures();
+    }
+
+    @Benchmark
+    public List<FournisseurDTO> fournisseursEntitesPuisMapper() {
+        return dtoMapper.toFournisseurDTOList(fournisseurRepository.findAll());
+    }
+
+    @Benchmark
+    public List<FournisseurDTO> fournisseursProjection() {
+        return fournisseurService.retrieveAllFournisseurs();
+    }
+}
@@ -0,0 +1,136 @@
+package tn.esprit.rh.achat.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ConfigurableApplicationContext;
+import tn.esprit.rh.achat.AchatApplication;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.entities.CategorieFournisseur;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Fournisseur;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.FournisseurRepository;
+import tn.esprit.rh.achat.repositories.ProduitRepository;
+import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.services.IFactureService;
+import tn.esprit.rh.achat.services.IFournisseurService;
+import tn.esprit.rh.achat.services.IProduitService;
+import tn.esprit.rh.achat.services.IStockService;
+import tn.esprit.rh.achat.util.LogSampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listes des services sur H2 selon la journalisation :
+ * <ul>
+ * <li>off : services en INFO, SQL non journalisé (configuration par défaut)</li>
+ * <li>echantillon : services en DEBUG, une ligne sur 100, au plus 20 par seconde (LogSampler)</li>
+ * <li>tout : services en DEBUG, chaque ligne, et spring.jpa.show-sql=true (ancien comportement)</li>
+ * </ul>
+ * La console passe par l'AsyncAppender de logback-spring.xml dans les trois cas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetrieveAllLoggingBenchmark {
+
+    @Param({ "1000" })
+    int lignes;
+
+    @Param({ "off", "echantillon", "tout" })
+    String journalisation;
+
+    private ConfigurableApplicationContext context;
+    private IFactureService factureService;
+    private IFournisseurService fournisseurService;
+    private IProduitService produitService;
+    private IStockService stockService;
+
+    @Setup
+    public void setUp() {
+        boolean tout = "tout".equals(journalisation);
+        context = new SpringApplicationBuilder(AchatApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=" + tout)
+                .run();
+        factureService = context.getBean(IFactureService.class);
+        fournisseurService = context.getBean(IFournisseurService.class);
+        produitService = context.getBean(IProduitService.class);
+        stockService = context.getBean(IStockService.class);
+
+        List<Facture> factures = Fixtures.factures(lignes);
+        factures.forEach(f -> f.setIdFacture(null));
+        context.getBean(FactureRepository.class).saveAll(factures);
+        List<Produit> produits = Fixtures.produits(lignes);
+        produits.forEach(p -> p.setIdProduit(null));
+        context.getBean(ProduitRepository.class).saveAll(produits);
+        List<Stock> stocks = Fixtures.stocks(lignes);
+        stocks.forEach(s -> s.setIdStock(null));
+        context.getBean(StockRepository.class).saveAll(stocks);
+        List<Fournisseur> fournisseurs = new ArrayList<>(lignes);
+        for (int i = 0; i < lignes; i++) {
+            Fournisseur fournisseur = new Fournisseur();
+            fournisseur.setCode("F" + i);
+            fournisseur.setLibelle("Fournisseur " + i);
+            fournisseur.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+            fournisseurs.add(fournisseur);
+        }
+        context.getBean(FournisseurRepository.class).saveAll(fournisseurs);
+
+        boolean debug = !"off".equals(journalisation);
+        context.getBean(LoggingSystem.class)
+                .setLogLevel("tn.esprit.rh.achat.services", debug ? LogLevel.DEBUG : LogLevel.INFO);
+        if (tout) {
+            context.getBean(LogSampler.class).configurer(1, Integer.MAX_VALUE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FactureDTO> factures() {
+        return factureService.retrieveAllFactures();
+    }
+
+    @Benchmark
+    public List<FournisseurDTO> fournisseurs() {
+        return fournisseurService.retrieveAllFournisseurs();
+    }
+
+    @Benchmark
+    public List<ProduitDTO> produits() {
+        return produitService.retrieveAllProduits();
+    }
+
+    @Benchmark
+    public List<StockDTO> stocks() {
+        return stockService.retrieveAllStocks();
+    }
+}
@@ -0,0 +1,54 @@
+package tn.esprit.rh.achat.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tn.esprit.rh.achat.benchmark.Fixtures;
+import tn.esprit.rh.achat.entities.DetailFacture;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul des montants d'une facture (FactureServiceImpl.addDetailsFacture), prix déjà lus dans le cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FacturePricingBenchmark {
+
+    @Param({ "10", "1000" })
+    int lignes;
+
+    private final FactureServiceImpl factureService = new FactureServiceImpl();
+    private final Map<Long, ProduitPrix> produits = new HashMap<>();
+    private Set<DetailFacture> details;
+
+    @Setup
+    public void setUp() {
+        for (Produit produit : Fixtures.produits(500)) {
+            produits.put(produit.getIdProduit(), ProduitPrix.of(produit));
+        }
+        details = Fixtures.details(lignes, 500);
+    }
+
+    @Benchmark
+    public Facture addDetailsFacture() {
+        return factureService.addDetailsFacture(new Facture(), details, produits);
+    }
+}
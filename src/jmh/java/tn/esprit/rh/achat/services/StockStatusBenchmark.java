@@ -0,0 +1,47 @@
+package tn.esprit.rh.achat.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tn.esprit.rh.achat.benchmark.Fixtures;
+import tn.esprit.rh.achat.entities.Stock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction du rapport StockServiceImpl.retrieveStatusStock à partir de l'index des stocks en rouge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockStatusBenchmark {
+
+    @Param({ "100", "10000" })
+    int stocks;
+
+    private final StockServiceImpl stockService = new StockServiceImpl();
+
+    @Setup
+    public void setUp() {
+        stockService.lowStockIndex = new LowStockIndex();
+        for (Stock stock : Fixtures.stocks(stocks)) {
+            stockService.lowStockIndex.update(stock);
+        }
+    }
+
+    @Benchmark
+    public String retrieveStatusStock() {
+        return stockService.retrieveStatusStock();
+    }
+}
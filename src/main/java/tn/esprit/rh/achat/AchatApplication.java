@@ -2,10 +2,12 @@ package tn.esprit.rh.achat;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
-@SpringBootApplication
+// R2DBC : pool privé de ReactiveReadServer, pas de ConnectionFactory en bean (DataSource JDBC conservée)
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class AchatApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,74 @@
+package tn.esprit.rh.achat.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.rh.achat.dto.CategorieProduitDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.repositories.CatalogueReactiveRepository;
+
+import java.util.function.Function;
+
+/**
+ * Routes WebFlux de lecture du catalogue et des stocks, servies par ReactiveReadServer
+ * (port achat.reactive.port). Mêmes chemins que ProduitRestController, StockRestController
+ * et CategorieProduitController : un client passe de l'un à l'autre en changeant de port.
+ * <p>
+ * Les listes partent en application/x-ndjson, un objet par ligne, au rythme du client :
+ * la demande du socket remonte jusqu'au curseur R2DBC, au plus {@code prefetch} lignes
+ * lues d'avance. Un client lent n'occupe ni thread ni liste complète en mémoire.
+ * Identifiant inconnu : 404.
+ */
+public final class CatalogueReactiveRoutes {
+
+    private CatalogueReactiveRoutes() {
+    }
+
+    public static RouterFunction<ServerResponse> routes(CatalogueReactiveRepository repository, int prefetch) {
+        return RouterFunctions.route()
+                .GET("/produit/retrieve-all-produits",
+                        request -> stream(repository.findAllProduits(), ProduitDTO.class, prefetch))
+                .GET("/produit/retrieve-produit/{produit-id}",
+                        request -> one(request, "produit-id", repository::findProduit))
+                .GET("/produit/retrieve-produits-by-categorie/{categorieProduit-id}",
+                        request -> withId(request, "categorieProduit-id",
+                                id -> stream(repository.findProduitsByCategorie(id), ProduitDTO.class, prefetch)))
+                .GET("/stock/retrieve-all-stocks",
+                        request -> stream(repository.findAllStocks(), StockDTO.class, prefetch))
+                .GET("/stock/retrieve-stock/{stock-id}",
+                        request -> one(request, "stock-id", repository::findStock))
+                .GET("/stock/retrieve-stocks-en-rouge",
+                        request -> stream(repository.findStocksEnRouge(), StockDTO.class, prefetch))
+                .GET("/categorieProduit/retrieve-all-categorieProduit",
+                        request -> stream(repository.findAllCategories(), CategorieProduitDTO.class, prefetch))
+                .build();
+    }
+
+    private static <T> Mono<ServerResponse> stream(Flux<T> rows, Class<T> type, int prefetch) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(rows.limitRate(prefetch), type);
+    }
+
+    private static <T> Mono<ServerResponse> one(ServerRequest request, String variable, Function<Long, Mono<T>> find) {
+        return withId(request, variable, id -> find.apply(id)
+                .flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto))
+                .switchIfEmpty(ServerResponse.notFound().build()));
+    }
+
+    private static Mono<ServerResponse> withId(ServerRequest request, String variable,
+                                               Function<Long, Mono<ServerResponse>> handler) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable(variable));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return handler.apply(id);
+    }
+}
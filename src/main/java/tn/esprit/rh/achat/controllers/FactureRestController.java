@@ -3,13 +3,24 @@ package tn.esprit.rh.achat.controllers;
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
+import tn.esprit.rh.achat.dto.FactureCreationDTO;
 import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.services.IExportService;
 import tn.esprit.rh.achat.services.IFactureService;
 import tn.esprit.rh.achat.util.DTOMapper;
+import tn.esprit.rh.achat.util.ExportFormat;
+import tn.esprit.rh.achat.util.KeysetPage;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 
 @RestController
@@ -21,19 +32,55 @@ public class FactureRestController {
     @Autowired
     IFactureService factureService;
 
+    @Autowired
+    IExportService exportService;
+
     @Autowired
     DTOMapper dtoMapper;
 
     @GetMapping("/retrieve-all-factures")
     @ResponseBody
     public List<FactureDTO> getFactures() {
-        return dtoMapper.toFactureDTOList(factureService.retrieveAllFactures());
+        return factureService.retrieveAllFactures();
+    }
+
+    // http://localhost:8089/SpringMVC/facture/retrieve-factures-page?size=50&cursor=...
+    @GetMapping("/retrieve-factures-page")
+    @ResponseBody
+    public CursorPageDTO<FactureDTO> getFacturesPage(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+        int pageSize = KeysetPage.pageSize(size);
+        List<FactureDTO> rows = factureService.retrieveFacturesPage(KeysetPage.afterId(cursor), KeysetPage.fetchSize(pageSize), startDate, endDate);
+        return KeysetPage.of(rows, pageSize, FactureDTO::getIdFacture, Function.identity());
+    }
+
+    // http://localhost:8089/SpringMVC/facture/export?format=csv&startDate=2024-01-01&endDate=2024-12-31&idFournisseur=1
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFactures(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+            @RequestParam(name = "idFournisseur", required = false) Long idFournisseur) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> exportService.exportFactures(startDate, endDate, idFournisseur, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=factures." + exportFormat.getExtension())
+                .body(body);
     }
 
     @GetMapping("/retrieve-facture/{facture-id}")
     @ResponseBody
-    public FactureDTO retrieveFacture(@PathVariable("facture-id") Long factureId) {
-        return dtoMapper.toDTO(factureService.retrieveFacture(factureId));
+    public FactureDTO retrieveFacture(@PathVariable("facture-id") Long factureId,
+            @RequestParam(name = "includeArchive", defaultValue = "false") boolean includeArchive) {
+        Facture facture = factureService.retrieveFacture(factureId);
+        if (facture == null && includeArchive) {
+            return factureService.retrieveFactureArchivee(factureId);
+        }
+        return dtoMapper.toDTO(facture);
     }
 
     @PostMapping("/add-facture")
@@ -41,16 +88,59 @@ public class FactureRestController {
     public FactureDTO addFacture(@RequestBody FactureDTO dto) {
         return dtoMapper.toDTO(factureService.addFacture(dtoMapper.toEntity(dto)));
     }
+
+    // http://localhost:8089/SpringMVC/facture/add-factures
+    @PostMapping("/add-factures")
+    @ResponseBody
+    public List<FactureDTO> addFactures(@RequestBody List<FactureCreationDTO> dtos) {
+        return dtoMapper.toFactureDTOList(factureService.addFactures(dtoMapper.toFactureEntityList(dtos)));
+    }
     @PutMapping("/cancel-facture/{facture-id}")
     @ResponseBody
     public void cancelFacture(@PathVariable("facture-id") Long factureId) {
         factureService.cancelFacture(factureId);
     }
 
+    // http://localhost:8089/SpringMVC/facture/cancel-factures (corps : [1, 2, 3])
+    @PutMapping("/cancel-factures")
+    @ResponseBody
+    public int cancelFactures(@RequestBody List<Long> factureIds) {
+        return factureService.cancelFactures(factureIds);
+    }
+
+    // http://localhost:8089/SpringMVC/facture/cancel-factures/fournisseur/1?startDate=2024-01-01&endDate=2024-03-31
+    @PutMapping("/cancel-factures/fournisseur/{fournisseur-id}")
+    @ResponseBody
+    public int cancelFacturesByFournisseur(
+            @PathVariable("fournisseur-id") Long fournisseurId,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+        return factureService.cancelFacturesByFournisseur(fournisseurId, startDate, endDate);
+    }
+
+    // http://localhost:8089/SpringMVC/facture/getFactureByFournisseur/1?size=50&archivee=false&startDate=2024-01-01&cursor=...
     @GetMapping("/getFactureByFournisseur/{fournisseur-id}")
     @ResponseBody
-    public List<FactureDTO> getFactureByFournisseur(@PathVariable("fournisseur-id") Long fournisseurId) {
-        return dtoMapper.toFactureDTOList(factureService.getFacturesByFournisseur(fournisseurId));
+    public CursorPageDTO<FactureDTO> getFactureByFournisseur(
+            @PathVariable("fournisseur-id") Long fournisseurId,
+            @RequestParam(name = "archivee", defaultValue = "false") boolean archivee,
+            @RequestParam(name = "includeArchive", defaultValue = "false") boolean includeArchive,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+        int pageSize = KeysetPage.pageSize(size);
+        Long afterId = cursor == null || cursor.isEmpty() ? null : KeysetPage.afterId(cursor);
+        // includeArchive : factures archivées des tables chaudes et de l'archive, fusionnées
+        List<FactureDTO> rows = archivee && includeArchive
+                ? factureService.getFacturesArchiveesByFournisseur(fournisseurId, startDate, endDate,
+                        KeysetPage.afterDate(cursor), afterId, KeysetPage.fetchSize(pageSize))
+                : factureService.getFacturesByFournisseur(fournisseurId, archivee, startDate, endDate,
+                        KeysetPage.afterDate(cursor), afterId, KeysetPage.fetchSize(pageSize));
+        // curseur composite (date de création, id) : ordre de l'index
+        return KeysetPage.withCursor(rows, pageSize,
+                f -> KeysetPage.encode(KeysetPage.dateKey(f.getDateCreationFacture()), String.valueOf(f.getIdFacture())),
+                Function.identity());
     }
 
     // http://localhost:8089/SpringMVC/facture/assignOperateurToFacture/1/1
@@ -71,4 +161,18 @@ public class FactureRestController {
         }
     }
 
+    // http://localhost:8089/SpringMVC/facture/archive
+    @PostMapping("/archive")
+    @ResponseBody
+    public int archiverFactures() {
+        return factureService.archiverFactures();
+    }
+
+    // http://localhost:8089/SpringMVC/facture/recouvrement/rebuild
+    @PostMapping("/recouvrement/rebuild")
+    @ResponseBody
+    public int rebuildRecouvrement() {
+        return factureService.rebuildRecouvrement();
+    }
+
 }
@@ -3,11 +3,14 @@ package tn.esprit.rh.achat.controllers;
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
 import tn.esprit.rh.achat.dto.FournisseurDTO;
 import tn.esprit.rh.achat.services.IFournisseurService;
 import tn.esprit.rh.achat.util.DTOMapper;
+import tn.esprit.rh.achat.util.KeysetPage;
 
 import java.util.List;
+import java.util.function.Function;
 
 
 @RestController
@@ -24,7 +27,18 @@ public class FournisseurRestController {
 	@GetMapping("/retrieve-all-fournisseurs")
 	@ResponseBody
 	public List<FournisseurDTO> getFournisseurs() {
-		return dtoMapper.toFournisseurDTOList(fournisseurService.retrieveAllFournisseurs());
+		return fournisseurService.retrieveAllFournisseurs();
+	}
+
+	// http://localhost:8089/SpringMVC/fournisseur/retrieve-fournisseurs-page?size=50&cursor=...
+	@GetMapping("/retrieve-fournisseurs-page")
+	@ResponseBody
+	public CursorPageDTO<FournisseurDTO> getFournisseursPage(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", required = false) Integer size) {
+		int pageSize = KeysetPage.pageSize(size);
+		List<FournisseurDTO> rows = fournisseurService.retrieveFournisseursPage(KeysetPage.afterId(cursor), KeysetPage.fetchSize(pageSize));
+		return KeysetPage.of(rows, pageSize, FournisseurDTO::getIdFournisseur, Function.identity());
 	}
 
 	@GetMapping("/retrieve-fournisseur/{fournisseur-id}")
@@ -2,12 +2,17 @@ package tn.esprit.rh.achat.controllers;
 
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
 import tn.esprit.rh.achat.dto.ProduitDTO;
 import tn.esprit.rh.achat.services.IProduitService;
 import tn.esprit.rh.achat.util.DTOMapper;
+import tn.esprit.rh.achat.util.KeysetPage;
 
+import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 
 @RestController
@@ -25,13 +30,26 @@ public class ProduitRestController {
 	@GetMapping("/retrieve-all-produits")
 	@ResponseBody
 	public List<ProduitDTO> getProduits() {
-		return dtoMapper.toProduitDTOList(produitService.retrieveAllProduits());
+		return produitService.retrieveAllProduits();
+	}
+
+	// http://localhost:8089/SpringMVC/produit/retrieve-produits-page?size=50&cursor=...
+	@GetMapping("/retrieve-produits-page")
+	@ResponseBody
+	public CursorPageDTO<ProduitDTO> getProduitsPage(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", required = false) Integer size,
+			@RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+			@RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+		int pageSize = KeysetPage.pageSize(size);
+		List<ProduitDTO> rows = produitService.retrieveProduitsPage(KeysetPage.afterId(cursor), KeysetPage.fetchSize(pageSize), startDate, endDate);
+		return KeysetPage.of(rows, pageSize, ProduitDTO::getIdProduit, Function.identity());
 	}
 
 	@GetMapping("/retrieve-produit/{produit-id}")
 	@ResponseBody
 	public ProduitDTO retrieveRayon(@PathVariable("produit-id") Long produitId) {
-		return dtoMapper.toDTO(produitService.retrieveProduit(produitId));
+		return dtoMapper.toDTO(produitService.retrieveProduitPrix(produitId));
 	}
 
 	@PostMapping("/add-produit")
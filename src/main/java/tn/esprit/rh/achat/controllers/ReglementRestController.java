@@ -3,13 +3,22 @@ package tn.esprit.rh.achat.controllers;
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
 import tn.esprit.rh.achat.dto.ReglementDTO;
+import tn.esprit.rh.achat.services.IExportService;
 import tn.esprit.rh.achat.services.IReglementService;
 import tn.esprit.rh.achat.util.DTOMapper;
+import tn.esprit.rh.achat.util.ExportFormat;
+import tn.esprit.rh.achat.util.KeysetPage;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @Api(tags = "Gestion des reglements")
@@ -20,6 +29,9 @@ public class ReglementRestController {
     @Autowired
     IReglementService reglementService;
 
+    @Autowired
+    IExportService exportService;
+
     @Autowired
     DTOMapper dtoMapper;
 
@@ -32,7 +44,35 @@ public class ReglementRestController {
     @GetMapping("/retrieve-all-reglements")
     @ResponseBody
     public List<ReglementDTO> getReglement() {
-        return dtoMapper.toReglementDTOList(reglementService.retrieveAllReglements());
+        return reglementService.retrieveAllReglements();
+    }
+
+    // http://localhost:8089/SpringMVC/reglement/retrieve-reglements-page?size=50&cursor=...
+    @GetMapping("/retrieve-reglements-page")
+    @ResponseBody
+    public CursorPageDTO<ReglementDTO> getReglementsPage(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+        int pageSize = KeysetPage.pageSize(size);
+        List<ReglementDTO> rows = reglementService.retrieveReglementsPage(KeysetPage.afterId(cursor), KeysetPage.fetchSize(pageSize), startDate, endDate);
+        return KeysetPage.of(rows, pageSize, ReglementDTO::getIdReglement, Function.identity());
+    }
+
+    // http://localhost:8089/SpringMVC/reglement/export?format=ndjson&startDate=2024-01-01&endDate=2024-12-31&idFournisseur=1
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReglements(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+            @RequestParam(name = "idFournisseur", required = false) Long idFournisseur) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> exportService.exportReglements(startDate, endDate, idFournisseur, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reglements." + exportFormat.getExtension())
+                .body(body);
     }
 
     @GetMapping("/retrieve-reglement/{reglement-id}")
@@ -43,13 +83,14 @@ public class ReglementRestController {
 
     @GetMapping("/retrieveReglementByFacture/{facture-id}")
     @ResponseBody
-    public List<ReglementDTO> retrieveReglementByFacture(@PathVariable("facture-id") Long factureId) {
-        return dtoMapper.toReglementDTOList(reglementService.retrieveReglementByFacture(factureId));
+    public List<ReglementDTO> retrieveReglementByFacture(@PathVariable("facture-id") Long factureId,
+            @RequestParam(name = "includeArchive", defaultValue = "false") boolean includeArchive) {
+        return reglementService.retrieveReglementByFacture(factureId, includeArchive);
     }
 
     // http://localhost:8089/SpringMVC/reglement/getChiffreAffaireEntreDeuxDate/{startDate}/{endDate}
     @GetMapping(value = "/getChiffreAffaireEntreDeuxDate/{startDate}/{endDate}")
-    public float getChiffreAffaireEntreDeuxDate(
+    public double getChiffreAffaireEntreDeuxDate(
             @PathVariable(name = "startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
             @PathVariable(name = "endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
         try {
@@ -3,12 +3,19 @@ package tn.esprit.rh.achat.controllers;
 
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
 import tn.esprit.rh.achat.dto.StockDTO;
 import tn.esprit.rh.achat.services.IStockService;
+import tn.esprit.rh.achat.services.StockAlertBroadcaster;
 import tn.esprit.rh.achat.util.DTOMapper;
+import tn.esprit.rh.achat.util.KeysetPage;
 
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @Api(tags = "Gestion des stocks")
@@ -19,13 +26,27 @@ public class StockRestController {
 	@Autowired
 	IStockService stockService;
 
+	@Autowired
+	StockAlertBroadcaster stockAlertBroadcaster;
+
 	@Autowired
 	DTOMapper dtoMapper;
 
 	@GetMapping("/retrieve-all-stocks")
 	@ResponseBody
 	public List<StockDTO> getStocks() {
-		return dtoMapper.toStockDTOList(stockService.retrieveAllStocks());
+		return stockService.retrieveAllStocks();
+	}
+
+	// http://localhost:8089/SpringMVC/stock/retrieve-stocks-page?size=50&cursor=...
+	@GetMapping("/retrieve-stocks-page")
+	@ResponseBody
+	public CursorPageDTO<StockDTO> getStocksPage(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "size", required = false) Integer size) {
+		int pageSize = KeysetPage.pageSize(size);
+		List<StockDTO> rows = stockService.retrieveStocksPage(KeysetPage.afterId(cursor), KeysetPage.fetchSize(pageSize));
+		return KeysetPage.of(rows, pageSize, StockDTO::getIdStock, Function.identity());
 	}
 
 	@GetMapping("/retrieve-stock/{stock-id}")
@@ -51,14 +72,31 @@ public class StockRestController {
 	public StockDTO modifyStock(@RequestBody StockDTO dto) {
 		return dtoMapper.toDTO(stockService.updateStock(dtoMapper.toEntity(dto)));
 	}
+	// http://localhost:8089/SpringMVC/stock/retrieve-stocks-en-rouge
+	@GetMapping("/retrieve-stocks-en-rouge")
+	@ResponseBody
+	public List<StockDTO> getStocksEnRouge() {
+		return stockService.retrieveStocksEnRouge();
+	}
+
+	// http://localhost:8089/SpringMVC/stock/reorder-suggestions
+	@GetMapping("/reorder-suggestions")
+	@ResponseBody
+	public List<ReorderSuggestionDTO> getReorderSuggestions() {
+		return stockService.retrieveReorderSuggestions();
+	}
+
+	// http://localhost:8089/SpringMVC/stock/alerts/stream
+	@GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamAlerts() {
+		return stockAlertBroadcaster.subscribe();
+	}
+
 	// http://localhost:8089/SpringMVC/stock/retrieveStatusStock
-	// @Scheduled(fixedRate = 60000)
-	// @Scheduled(fixedDelay = 60000)
-	//@Scheduled(cron = "*/60 * * * * *")
-	//@GetMapping("/retrieveStatusStock")
-//	@ResponseBody
-//	public void retrieveStatusStock() {
-//		stockService.retrieveStatusStock();
-//	}
+	@GetMapping("/retrieveStatusStock")
+	@ResponseBody
+	public String retrieveStatusStock() {
+		return stockService.retrieveStatusStock();
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package tn.esprit.rh.achat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page d'une liste paginée par clé (keyset) : nextCursor est null sur la dernière page
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+    private int size;
+}
@@ -0,0 +1,16 @@
+package tn.esprit.rh.achat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DetailFactureDTO {
+    private Long idProduit;
+    private Integer qteCommandee;
+    private Integer pourcentageRemise;
+}
@@ -0,0 +1,22 @@
+package tn.esprit.rh.achat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Facture à créer avec ses lignes (import fournisseur en masse)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FactureCreationDTO {
+    private Long idFournisseur;
+    private Date dateCreationFacture;
+    private List<DetailFactureDTO> detailsFacture;
+}
@@ -13,8 +13,8 @@ import java.util.Date;
 @NoArgsConstructor
 public class FactureDTO {
     private Long idFacture;
-    private float montantRemise;
-    private float montantFacture;
+    private double montantRemise;
+    private double montantFacture;
     private Date dateCreationFacture;
     private Date dateDerniereModificationFacture;
     private Boolean archivee;
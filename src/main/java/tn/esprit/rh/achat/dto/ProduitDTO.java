@@ -15,7 +15,7 @@ public class ProduitDTO {
     private Long idProduit;
     private String codeProduit;
     private String libelleProduit;
-    private float prix;
+    private double prix;
     private Date dateCreation;
     private Date dateDerniereModification;
 }
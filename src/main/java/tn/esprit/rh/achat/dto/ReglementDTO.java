@@ -13,8 +13,8 @@ import java.util.Date;
 @NoArgsConstructor
 public class ReglementDTO {
     private Long idReglement;
-    private float montantPaye;
-    private float montantRestant;
+    private double montantPaye;
+    private double montantRestant;
     private Date dateReglement;
     private Boolean payee;
 }
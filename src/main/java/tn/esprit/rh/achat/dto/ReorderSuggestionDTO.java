@@ -0,0 +1,22 @@
+package tn.esprit.rh.achat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReorderSuggestionDTO {
+    private Long idStock;
+    private String libelleStock;
+    private Integer qte;
+    private Integer qteMin;
+    // consommation journalière sur la fenêtre (jours sans facture compris)
+    private double consommationMoyenneJour;
+    private double ecartTypeJour;
+    private int qteMinSuggeree;
+    private int qteACommander;
+}
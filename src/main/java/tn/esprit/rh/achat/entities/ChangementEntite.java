@@ -0,0 +1,38 @@
+package tn.esprit.rh.achat.entities;
+
+import java.io.Serializable;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Journal des modifications / suppressions d'entités mises en cache, lu
+ * périodiquement par chaque réplica pour invalider ses caches locaux
+ * (voir DatabaseInvalidationBus).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangementEntite implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "changement_entite_seq")
+	@SequenceGenerator(name = "changement_entite_seq", sequenceName = "changement_entite_seq", allocationSize = 50)
+	private Long idChangementEntite;
+	private String typeEntite;
+	private Long idEntite;
+	/** réplica à l'origine du changement */
+	private String instance;
+	/** epoch en millisecondes */
+	private long horodatage;
+
+}
@@ -6,6 +6,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -20,12 +21,14 @@ import lombok.Setter;
 public class DetailFacture implements Serializable {
 	private static final long serialVersionUID = 1L;
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detail_facture_seq")
+	@SequenceGenerator(name = "detail_facture_seq", sequenceName = "detail_facture_seq", allocationSize = 50)
 	private Long idDetailFacture;
 	private Integer qteCommandee;
-	private float prixTotalDetail;
+	// montants en millimes (voir Money)
+	private long prixTotalDetail;
 	private Integer pourcentageRemise;
-	private float montantRemise;
+	private long montantRemise;
 	@ManyToOne
 	private Produit produit;
 	@ManyToOne
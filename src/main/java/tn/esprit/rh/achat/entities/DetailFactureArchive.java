@@ -0,0 +1,37 @@
+package tn.esprit.rh.achat.entities;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import org.hibernate.annotations.Immutable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Ligne d'une facture archivée (voir FactureArchive), lecture seule
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DetailFactureArchive implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	private Long idDetailFacture;
+	private Integer qteCommandee;
+	// montants en millimes (voir Money)
+	private long prixTotalDetail;
+	private Integer pourcentageRemise;
+	private long montantRemise;
+	@Column(name = "produit_id_produit")
+	private Long idProduit;
+	@Column(name = "facture_id_facture")
+	private Long idFacture;
+
+}
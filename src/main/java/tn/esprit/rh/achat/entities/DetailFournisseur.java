@@ -7,6 +7,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -23,7 +24,8 @@ import lombok.Setter;
 public class DetailFournisseur implements Serializable{
 	private static final long serialVersionUID = 1L;
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detail_fournisseur_seq")
+	@SequenceGenerator(name = "detail_fournisseur_seq", sequenceName = "detail_fournisseur_seq", allocationSize = 50)
 	private Long idDetailFournisseur;
 	private String email;
 	@Temporal(TemporalType.DATE)
@@ -9,6 +9,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -26,10 +27,12 @@ public class Facture implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facture_seq")
+	@SequenceGenerator(name = "facture_seq", sequenceName = "facture_seq", allocationSize = 50)
 	private Long idFacture;
-	private float montantRemise;
-	private float montantFacture;
+	// montants en millimes (voir Money)
+	private long montantRemise;
+	private long montantFacture;
 	@Temporal(TemporalType.DATE)
 	private Date dateCreationFacture;
 	@Temporal(TemporalType.DATE)
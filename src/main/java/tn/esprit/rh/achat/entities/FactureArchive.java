@@ -0,0 +1,46 @@
+package tn.esprit.rh.achat.entities;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.hibernate.annotations.Immutable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Facture archivée déplacée hors de la table facture par FactureArchiver.
+ * Lecture seule ; fournisseur et opérateur sont de simples identifiants.
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FactureArchive implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	private Long idFacture;
+	// montants en millimes (voir Money)
+	private long montantRemise;
+	private long montantFacture;
+	@Temporal(TemporalType.DATE)
+	private Date dateCreationFacture;
+	@Temporal(TemporalType.DATE)
+	private Date dateDerniereModificationFacture;
+	private Boolean archivee;
+	@Column(name = "fournisseur_id_fournisseur")
+	private Long idFournisseur;
+	@Column(name = "operateur_id_operateur")
+	private Long idOperateur;
+	@Temporal(TemporalType.DATE)
+	private Date dateArchivage;
+
+}
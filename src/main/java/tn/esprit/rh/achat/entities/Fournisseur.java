@@ -11,15 +11,24 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/*
+ * Le détail est chargé à la demande ; le graphe nommé fixe ce que charge la vue
+ * détail (les listes passent par les projections DTO du repository)
+ */
 @Entity
+@NamedEntityGraph(name = Fournisseur.GRAPHE_DETAIL, attributeNodes = {
+		@NamedAttributeNode("detailFournisseur"), @NamedAttributeNode("secteurActivites") })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -27,9 +36,11 @@ import lombok.Setter;
 public class Fournisseur implements Serializable {
 
 	private static final long serialVersionUID = 1L;
+	public static final String GRAPHE_DETAIL = "Fournisseur.detail";
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fournisseur_seq")
+	@SequenceGenerator(name = "fournisseur_seq", sequenceName = "fournisseur_seq", allocationSize = 50)
 	private Long idFournisseur;
 	private String code;
 	private String libelle;
@@ -41,7 +52,7 @@ public class Fournisseur implements Serializable {
     @ManyToMany
     @JsonIgnore
     private Set<SecteurActivite> secteurActivites;
-    @OneToOne(cascade= CascadeType.ALL,fetch=FetchType.EAGER)
+    @OneToOne(cascade= CascadeType.ALL,fetch=FetchType.LAZY)
     private DetailFournisseur detailFournisseur;
     
 
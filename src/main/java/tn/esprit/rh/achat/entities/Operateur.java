@@ -3,11 +3,17 @@ package tn.esprit.rh.achat.entities;
 import java.io.Serializable;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -17,21 +23,27 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Operateur implements Serializable{
 	private static final long serialVersionUID = 1L;
+	public static final String TABLE_FACTURES = "operateur_factures";
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "operateur_seq")
+	@SequenceGenerator(name = "operateur_seq", sequenceName = "operateur_seq", allocationSize = 50)
 	private Long idOperateur;
 	private String nom;
 	private String prenom;
 	
 	private String password;
 	@OneToMany
+	@JoinTable(name = TABLE_FACTURES, joinColumns = @JoinColumn(name = "operateur_id_operateur"),
+			inverseJoinColumns = @JoinColumn(name = "factures_id_facture"))
 	@JsonIgnore
 	private Set<Facture> factures;
 	
@@ -9,6 +9,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -29,11 +30,13 @@ public class Produit implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produit_seq")
+	@SequenceGenerator(name = "produit_seq", sequenceName = "produit_seq", allocationSize = 50)
 	private Long idProduit;
 	private String codeProduit;
 	private String libelleProduit;
-	private float prix;
+	// en millimes (voir Money)
+	private long prix;
 	@Temporal(TemporalType.DATE)
 	private Date dateCreation;
 	@Temporal(TemporalType.DATE)
@@ -0,0 +1,44 @@
+package tn.esprit.rh.achat.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Agrégat journalier par fournisseur des montants facturés et payés
+ * (factures non archivées uniquement), tenu à jour à chaque ajout de facture,
+ * annulation de facture et ajout de règlement.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "jour", "idFournisseur" }))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecouvrementJournalier implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/** Clé utilisée pour les factures sans fournisseur */
+	public static final Long SANS_FOURNISSEUR = 0L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recouvrement_journalier_seq")
+	@SequenceGenerator(name = "recouvrement_journalier_seq", sequenceName = "recouvrement_journalier_seq", allocationSize = 50)
+	private Long idRecouvrementJournalier;
+	private LocalDate jour;
+	private Long idFournisseur;
+	// montants en millimes (voir Money)
+	private long montantFacture;
+	private long montantPaye;
+
+}
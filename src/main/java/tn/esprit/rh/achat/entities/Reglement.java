@@ -7,6 +7,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -24,10 +25,12 @@ public class Reglement implements Serializable{
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reglement_seq")
+	@SequenceGenerator(name = "reglement_seq", sequenceName = "reglement_seq", allocationSize = 50)
 	private Long idReglement;
-	private float montantPaye;
-	private float montantRestant;
+	// montants en millimes (voir Money)
+	private long montantPaye;
+	private long montantRestant;
 	private Boolean payee;
 	@Temporal(TemporalType.DATE)
 	private Date dateReglement;
@@ -0,0 +1,39 @@
+package tn.esprit.rh.achat.entities;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.hibernate.annotations.Immutable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Règlement d'une facture archivée (voir FactureArchive), lecture seule
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReglementArchive implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	private Long idReglement;
+	// montants en millimes (voir Money)
+	private long montantPaye;
+	private long montantRestant;
+	private Boolean payee;
+	@Temporal(TemporalType.DATE)
+	private Date dateReglement;
+	@Column(name = "facture_id_facture")
+	private Long idFacture;
+
+}
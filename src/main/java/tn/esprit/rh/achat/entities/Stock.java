@@ -7,6 +7,9 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,11 +25,14 @@ public class Stock implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq")
+	@SequenceGenerator(name = "stock_seq", sequenceName = "stock_seq", allocationSize = 50)
 	private Long idStock;
 	private String libelleStock;
 	private Integer qte;
 	private Integer qteMin;
+	// qte < qteMin, matérialisé pour que StockRepository.retrieveStatusStock passe par un index
+	private boolean enRouge;
 	@OneToMany(mappedBy = "stock")
 	@JsonIgnore
 	private Set<Produit> produits;
@@ -37,4 +43,10 @@ public class Stock implements Serializable {
 		this.qteMin = qteMin;
 	}
 
+	@PrePersist
+	@PreUpdate
+	void calculerEnRouge() {
+		enRouge = qte != null && qteMin != null && qte < qteMin;
+	}
+
 }
@@ -0,0 +1,101 @@
+package tn.esprit.rh.achat.repositories;
+
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.rh.achat.dto.CategorieProduitDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.util.Money;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/*
+ * Lectures R2DBC du catalogue (produits, catégories) et des stocks pour l'API réactive
+ * (ReactiveReadServer) : mêmes DTO que ProduitRepository.PRODUIT_DTO et
+ * StockRepository.STOCK_DTO, lus sur les tables du schéma Flyway. Lecture seule : les
+ * écritures passent par JPA (ProduitRestController, StockRestController), le cache de
+ * second niveau n'est pas consulté ici.
+ *
+ * Pas un bean : construit par ReactiveReadServer sur son propre pool de connexions,
+ * une ConnectionFactory en bean désactiverait la DataSource JDBC de Spring Boot.
+ */
+public class CatalogueReactiveRepository {
+
+	static final String PRODUIT = "SELECT p.id_produit, p.code_produit, p.libelle_produit, p.prix, p.date_creation,"
+			+ " p.date_derniere_modification FROM produit p";
+	static final String STOCK = "SELECT s.id_stock, s.libelle_stock, s.qte, s.qte_min FROM stock s";
+	static final String CATEGORIE = "SELECT c.id_categorie_produit, c.code_categorie, c.libelle_categorie"
+			+ " FROM categorie_produit c";
+
+	private final DatabaseClient client;
+
+	public CatalogueReactiveRepository(DatabaseClient client) {
+		this.client = client;
+	}
+
+	public Flux<ProduitDTO> findAllProduits() {
+		return client.sql(PRODUIT + " ORDER BY p.id_produit")
+				.map((row, metadata) -> produit(row))
+				.all();
+	}
+
+	public Mono<ProduitDTO> findProduit(Long idProduit) {
+		return client.sql(PRODUIT + " WHERE p.id_produit = :id")
+				.bind("id", idProduit)
+				.map((row, metadata) -> produit(row))
+				.one();
+	}
+
+	public Flux<ProduitDTO> findProduitsByCategorie(Long idCategorieProduit) {
+		return client.sql(PRODUIT + " WHERE p.categorie_produit_id_categorie_produit = :id ORDER BY p.id_produit")
+				.bind("id", idCategorieProduit)
+				.map((row, metadata) -> produit(row))
+				.all();
+	}
+
+	public Flux<StockDTO> findAllStocks() {
+		return client.sql(STOCK + " ORDER BY s.id_stock")
+				.map((row, metadata) -> stock(row))
+				.all();
+	}
+
+	public Mono<StockDTO> findStock(Long idStock) {
+		return client.sql(STOCK + " WHERE s.id_stock = :id")
+				.bind("id", idStock)
+				.map((row, metadata) -> stock(row))
+				.one();
+	}
+
+	/** stocks sous le seuil : colonne en_rouge indexée, voir V2__stock_en_rouge.sql */
+	public Flux<StockDTO> findStocksEnRouge() {
+		return client.sql(STOCK + " WHERE s.en_rouge = TRUE ORDER BY s.id_stock")
+				.map((row, metadata) -> stock(row))
+				.all();
+	}
+
+	public Flux<CategorieProduitDTO> findAllCategories() {
+		return client.sql(CATEGORIE + " ORDER BY c.id_categorie_produit")
+				.map((row, metadata) -> new CategorieProduitDTO(row.get("id_categorie_produit", Long.class),
+						row.get("code_categorie", String.class), row.get("libelle_categorie", String.class)))
+				.all();
+	}
+
+	private static ProduitDTO produit(Row row) {
+		return new ProduitDTO(row.get("id_produit", Long.class), row.get("code_produit", String.class),
+				row.get("libelle_produit", String.class), Money.toDouble(row.get("prix", Long.class)),
+				date(row.get("date_creation", LocalDate.class)),
+				date(row.get("date_derniere_modification", LocalDate.class)));
+	}
+
+	private static StockDTO stock(Row row) {
+		return new StockDTO(row.get("id_stock", Long.class), row.get("libelle_stock", String.class),
+				row.get("qte", Integer.class), row.get("qte_min", Integer.class));
+	}
+
+	private static Date date(LocalDate date) {
+		return date != null ? java.sql.Date.valueOf(date) : null;
+	}
+}
@@ -1,10 +1,19 @@
 package tn.esprit.rh.achat.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import tn.esprit.rh.achat.entities.CategorieProduit;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategorieProduitRepository extends JpaRepository<CategorieProduit, Long>{
 
+	@Override
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<CategorieProduit> findAll();
 }
@@ -0,0 +1,23 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.entities.ChangementEntite;
+
+import java.util.List;
+
+@Repository
+public interface ChangementEntiteRepository extends CrudRepository<ChangementEntite, Long> {
+
+	@Query("SELECT c FROM ChangementEntite c where c.horodatage >= :depuis and c.instance <> :instance order by c.horodatage")
+	List<ChangementEntite> findChangementsDepuis(@Param("depuis") long depuis, @Param("instance") String instance);
+
+	@Transactional
+	@Modifying
+	@Query("delete from ChangementEntite c where c.horodatage < :limite")
+	int purger(@Param("limite") long limite);
+}
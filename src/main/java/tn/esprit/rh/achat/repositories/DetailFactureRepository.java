@@ -1,10 +1,36 @@
 package tn.esprit.rh.achat.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.esprit.rh.achat.entities.DetailFacture;
 
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface DetailFactureRepository extends JpaRepository<DetailFacture, Long> {
 
+	/*
+	 * Quantités commandées par (stock, jour) sur une fenêtre, factures actives uniquement,
+	 * triées par stock : ReorderSuggestions ne tient qu'un stock en cours à la fois.
+	 * archivee est passé en paramètre : le littéral false devient "= 0" avec le dialecte
+	 * MySQL et idx_facture_archivee_date_montant n'est plus retenu pour la plage de dates
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT s.idStock, s.libelleStock, s.qte, s.qteMin, f.dateCreationFacture, sum(d.qteCommandee)"
+			+ " FROM DetailFacture d join d.facture f join d.produit p join p.stock s"
+			+ " where f.archivee=:archivee and f.dateCreationFacture >= :startDate and f.dateCreationFacture <= :endDate"
+			+ " group by s.idStock, s.libelleStock, s.qte, s.qteMin, f.dateCreationFacture order by s.idStock")
+	Stream<Object[]> streamConsommationParStockEtJour(@Param("archivee") boolean archivee,
+			@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+	default Stream<Object[]> streamConsommationParStockEtJour(Date startDate, Date endDate) {
+		return streamConsommationParStockEtJour(false, startDate, endDate);
+	}
 }
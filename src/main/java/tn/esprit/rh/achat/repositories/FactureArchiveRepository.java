@@ -0,0 +1,82 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.entities.FactureArchive;
+import tn.esprit.rh.achat.entities.Operateur;
+import tn.esprit.rh.achat.util.Money;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static tn.esprit.rh.achat.repositories.FactureRepository.ORDRE_PAR_FOURNISSEUR;
+
+@Repository
+public interface FactureArchiveRepository extends CrudRepository<FactureArchive, Long> {
+
+	/*
+	 * Déplacement d'un lot de factures archivées vers les tables froides (FactureArchiver) :
+	 * copie de la facture (avec son opérateur), de ses lignes et de ses règlements,
+	 * puis suppression des lignes chaudes, enfants d'abord
+	 */
+	String TABLE = "facture_archive";
+	String TABLE_DETAILS = "detail_facture_archive";
+	String TABLE_REGLEMENTS = "reglement_archive";
+
+	String COPIER_FACTURES = "insert into " + TABLE + " (id_facture, archivee, date_creation_facture,"
+			+ " date_derniere_modification_facture, montant_facture, montant_remise, fournisseur_id_fournisseur,"
+			+ " operateur_id_operateur, date_archivage)"
+			+ " select f.id_facture, f.archivee, f.date_creation_facture, f.date_derniere_modification_facture,"
+			+ " f.montant_facture, f.montant_remise, f.fournisseur_id_fournisseur, o.operateur_id_operateur, :dateArchivage"
+			+ " from facture f left join " + Operateur.TABLE_FACTURES + " o on o.factures_id_facture = f.id_facture"
+			+ " where f.id_facture in (:ids)";
+	String COPIER_DETAILS = "insert into " + TABLE_DETAILS + " (id_detail_facture, montant_remise,"
+			+ " pourcentage_remise, prix_total_detail, qte_commandee, facture_id_facture, produit_id_produit)"
+			+ " select d.id_detail_facture, d.montant_remise, d.pourcentage_remise, d.prix_total_detail,"
+			+ " d.qte_commandee, d.facture_id_facture, d.produit_id_produit"
+			+ " from detail_facture d where d.facture_id_facture in (:ids)";
+	String COPIER_REGLEMENTS = "insert into " + TABLE_REGLEMENTS + " (id_reglement, date_reglement, montant_paye,"
+			+ " montant_restant, payee, facture_id_facture)"
+			+ " select r.id_reglement, r.date_reglement, r.montant_paye, r.montant_restant, r.payee, r.facture_id_facture"
+			+ " from reglement r where r.facture_id_facture in (:ids)";
+	String SUPPRIMER_AFFECTATIONS = "delete from " + Operateur.TABLE_FACTURES + " where factures_id_facture in (:ids)";
+	String SUPPRIMER_REGLEMENTS = "delete from reglement where facture_id_facture in (:ids)";
+	String SUPPRIMER_DETAILS = "delete from detail_facture where facture_id_facture in (:ids)";
+	String SUPPRIMER_FACTURES = "delete from facture where id_facture in (:ids)";
+
+	String FACTURE_ARCHIVE_DTO = "SELECT new tn.esprit.rh.achat.dto.FactureDTO(f.idFacture, f.montantRemise / "
+			+ Money.JPQL_UNIT + ", f.montantFacture / " + Money.JPQL_UNIT + ", f.dateCreationFacture,"
+			+ " f.dateDerniereModificationFacture, f.archivee) FROM FactureArchive f";
+
+	@Query(FACTURE_ARCHIVE_DTO + " where f.idFacture = :idFacture")
+	Optional<FactureDTO> findDTOByIdFacture(@Param("idFacture") Long idFacture);
+
+	/*
+	 * Même clé (date, id) et mêmes trois cas que FactureRepository.findDTOByFournisseur*,
+	 * pour fusionner une page des tables chaudes et une page de l'archive
+	 */
+	String FACTURE_ARCHIVE_DTO_PAR_FOURNISSEUR = FACTURE_ARCHIVE_DTO + " where f.idFournisseur = :idFournisseur"
+			+ " and (:startDate is null or f.dateCreationFacture >= :startDate)"
+			+ " and (:endDate is null or f.dateCreationFacture <= :endDate)";
+
+	@Query(FACTURE_ARCHIVE_DTO_PAR_FOURNISSEUR + ORDRE_PAR_FOURNISSEUR)
+	List<FactureDTO> findDTOByFournisseur(@Param("idFournisseur") Long idFournisseur,
+			@Param("startDate") Date startDate, @Param("endDate") Date endDate, Pageable pageable);
+
+	@Query(FACTURE_ARCHIVE_DTO_PAR_FOURNISSEUR + " and (f.dateCreationFacture < :afterDate"
+			+ " or (f.dateCreationFacture = :afterDate and f.idFacture < :afterId)"
+			+ " or f.dateCreationFacture is null)" + ORDRE_PAR_FOURNISSEUR)
+	List<FactureDTO> findDTOByFournisseurAfter(@Param("idFournisseur") Long idFournisseur,
+			@Param("startDate") Date startDate, @Param("endDate") Date endDate, @Param("afterDate") Date afterDate,
+			@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(FACTURE_ARCHIVE_DTO + " where f.idFournisseur = :idFournisseur and f.dateCreationFacture is null"
+			+ " and f.idFacture < :afterId order by f.idFacture desc")
+	List<FactureDTO> findDTOByFournisseurSansDateAfter(@Param("idFournisseur") Long idFournisseur,
+			@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -1,30 +1,134 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.FactureDTO;
 import tn.esprit.rh.achat.entities.Facture;
-import tn.esprit.rh.achat.entities.Fournisseur;
+import tn.esprit.rh.achat.util.Money;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface FactureRepository extends JpaRepository<Facture, Long> {
 
 	
-	@Query("SELECT f FROM Facture f where f.fournisseur=:fournisseur and f.archivee=false")
-	public List<Facture> getFactureByFournisseur(@Param("fournisseur") Fournisseur fournisseur);
-
-	
 	@Query("SELECT sum(f.montantFacture) FROM Facture f where  f.dateCreationFacture between :startDate"
 			+ " and :endDate and f.archivee=false")
-	float getTotalFacturesEntreDeuxDates(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+	Long getTotalFacturesEntreDeuxDates(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+	/*
+	 * Montants facturés par (jour, fournisseur) pour la reconstruction des agrégats de recouvrement
+	 */
+	@Query("SELECT f.dateCreationFacture, fr.idFournisseur, sum(f.montantFacture) FROM Facture f left join f.fournisseur fr"
+			+ " where f.archivee=false and f.dateCreationFacture is not null group by f.dateCreationFacture, fr.idFournisseur")
+	List<Object[]> sumFacturesParJourEtFournisseur();
+
+	/** annulation unitaire (FactureServiceImpl.cancelFacture) */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT f FROM Facture f where f.idFacture = :id")
+	Optional<Facture> lockById(@Param("id") Long id);
+
+	/*
+	 * Annulation en masse, par lot : les factures encore actives sont verrouillées
+	 * (select ... for update) avant la lecture des montants à retirer des agrégats,
+	 * puis archivées par un seul UPDATE
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT f.idFacture FROM Facture f where f.idFacture in :ids and (f.archivee=false or f.archivee is null)")
+	List<Long> lockFacturesActives(@Param("ids") Collection<Long> ids);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT f.idFacture FROM Facture f where f.fournisseur.idFournisseur = :idFournisseur"
+			+ " and (f.archivee=false or f.archivee is null)"
+			+ " and (:startDate is null or f.dateCreationFacture >= :startDate)"
+			+ " and (:endDate is null or f.dateCreationFacture <= :endDate)"
+			+ " and f.idFacture > :afterId order by f.idFacture")
+	List<Long> lockFacturesActivesByFournisseur(@Param("idFournisseur") Long idFournisseur,
+			@Param("startDate") Date startDate, @Param("endDate") Date endDate, @Param("afterId") Long afterId,
+			Pageable pageable);
+
+	@Query("SELECT f.dateCreationFacture, fr.idFournisseur, sum(f.montantFacture) FROM Facture f left join f.fournisseur fr"
+			+ " where f.idFacture in :ids and f.archivee=false and f.dateCreationFacture is not null"
+			+ " group by f.dateCreationFacture, fr.idFournisseur")
+	List<Object[]> sumFacturesParJourEtFournisseur(@Param("ids") Collection<Long> ids);
 
 	@Modifying
-	@Query("update Facture f set f.archivee=true where f.idFacture=?1")
-	void updateFacture(Long id);
+	@Query("update Facture f set f.archivee=true where f.idFacture in :ids")
+	int archiverFactures(@Param("ids") Collection<Long> ids);
+
+	/** prochain lot à déplacer vers les tables d'archive (FactureArchiver) */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT f.idFacture FROM Facture f where f.archivee=true order by f.idFacture")
+	List<Long> lockFacturesArchivees(Pageable pageable);
+
+	/*
+	 * Projections pour les endpoints de lecture : le DTO est construit par la requête,
+	 * sans entité gérée ni snapshot de dirty-checking
+	 */
+	String FACTURE_DTO = "SELECT new tn.esprit.rh.achat.dto.FactureDTO(f.idFacture, f.montantRemise / " + Money.JPQL_UNIT
+			+ ", f.montantFacture / " + Money.JPQL_UNIT + ", f.dateCreationFacture, f.dateDerniereModificationFacture,"
+			+ " f.archivee) FROM Facture f";
+
+	@Query(FACTURE_DTO)
+	List<FactureDTO> findAllDTO();
+
+	@Query(FACTURE_DTO + " where f.idFacture > :afterId"
+			+ " and (:startDate is null or f.dateCreationFacture >= :startDate)"
+			+ " and (:endDate is null or f.dateCreationFacture <= :endDate) order by f.idFacture")
+	List<FactureDTO> findDTOPage(@Param("afterId") Long afterId, @Param("startDate") Date startDate,
+			@Param("endDate") Date endDate, Pageable pageable);
+
+	/*
+	 * Factures d'un fournisseur, les plus récentes d'abord, servies par l'index
+	 * (fournisseur_id_fournisseur, archivee, date_creation_facture) : pagination par
+	 * clé (date, id), les factures sans date de création viennent en dernier.
+	 * Première page, page suivant une ligne datée, page suivant une ligne sans date.
+	 */
+	String FACTURE_DTO_PAR_FOURNISSEUR = FACTURE_DTO + " where f.fournisseur.idFournisseur = :idFournisseur"
+			+ " and f.archivee = :archivee"
+			+ " and (:startDate is null or f.dateCreationFacture >= :startDate)"
+			+ " and (:endDate is null or f.dateCreationFacture <= :endDate)";
+	String ORDRE_PAR_FOURNISSEUR = " order by f.dateCreationFacture desc, f.idFacture desc";
+
+	@Query(FACTURE_DTO_PAR_FOURNISSEUR + ORDRE_PAR_FOURNISSEUR)
+	List<FactureDTO> findDTOByFournisseur(@Param("idFournisseur") Long idFournisseur, @Param("archivee") Boolean archivee,
+			@Param("startDate") Date startDate, @Param("endDate") Date endDate, Pageable pageable);
+
+	@Query(FACTURE_DTO_PAR_FOURNISSEUR + " and (f.dateCreationFacture < :afterDate"
+			+ " or (f.dateCreationFacture = :afterDate and f.idFacture < :afterId)"
+			+ " or f.dateCreationFacture is null)" + ORDRE_PAR_FOURNISSEUR)
+	List<FactureDTO> findDTOByFournisseurAfter(@Param("idFournisseur") Long idFournisseur,
+			@Param("archivee") Boolean archivee, @Param("startDate") Date startDate, @Param("endDate") Date endDate,
+			@Param("afterDate") Date afterDate, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(FACTURE_DTO + " where f.fournisseur.idFournisseur = :idFournisseur and f.archivee = :archivee"
+			+ " and f.dateCreationFacture is null and f.idFacture < :afterId order by f.idFacture desc")
+	List<FactureDTO> findDTOByFournisseurSansDateAfter(@Param("idFournisseur") Long idFournisseur,
+			@Param("archivee") Boolean archivee, @Param("afterId") Long afterId, Pageable pageable);
+
+	/*
+	 * Lecture en flux pour les exports : curseur côté serveur (useCursorFetch + fetch size)
+	 * et projection DTO, aucune entité n'est chargée (ni fournisseur EAGER par ligne)
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query(FACTURE_DTO + " where (:startDate is null or f.dateCreationFacture >= :startDate)"
+			+ " and (:endDate is null or f.dateCreationFacture <= :endDate)"
+			+ " and (:idFournisseur is null or f.fournisseur.idFournisseur = :idFournisseur) order by f.idFacture")
+	Stream<FactureDTO> streamForExport(@Param("startDate") Date startDate, @Param("endDate") Date endDate,
+			@Param("idFournisseur") Long idFournisseur);
 	
 }
@@ -1,10 +1,35 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
 import tn.esprit.rh.achat.entities.Fournisseur;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface FournisseurRepository extends JpaRepository<Fournisseur, Long> {
 
+	/*
+	 * Projections pour les endpoints de lecture : ni entité gérée, ni chargement
+	 * du DetailFournisseur associé
+	 */
+	String FOURNISSEUR_DTO = "SELECT new tn.esprit.rh.achat.dto.FournisseurDTO(f.idFournisseur, f.code, f.libelle,"
+			+ " f.categorieFournisseur) FROM Fournisseur f";
+
+	@Query(FOURNISSEUR_DTO)
+	List<FournisseurDTO> findAllDTO();
+
+	@Query(FOURNISSEUR_DTO + " where f.idFournisseur > :afterId order by f.idFournisseur")
+	List<FournisseurDTO> findDTOPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	/** vue détail : fournisseur, détail et secteurs d'activité en une requête */
+	@EntityGraph(Fournisseur.GRAPHE_DETAIL)
+	Optional<Fournisseur> findDetailByIdFournisseur(Long idFournisseur);
+
 }
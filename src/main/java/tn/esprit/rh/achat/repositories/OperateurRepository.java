@@ -1,10 +1,29 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tn.esprit.rh.achat.entities.Operateur;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface OperateurRepository extends CrudRepository<Operateur, Long> {
 
+	/*
+	 * Affectation d'une facture sans charger la collection Operateur.factures ;
+	 * n'insère rien si l'opérateur ou la facture n'existe pas, ou si l'affectation existe déjà
+	 */
+	String AFFECTER_FACTURE = "insert into " + Operateur.TABLE_FACTURES
+			+ " (operateur_id_operateur, factures_id_facture)"
+			+ " select o.id_operateur, f.id_facture from operateur o, facture f"
+			+ " where o.id_operateur = :idOperateur and f.id_facture = :idFacture"
+			+ " and not exists (select 1 from " + Operateur.TABLE_FACTURES + " a"
+			+ " where a.operateur_id_operateur = :idOperateur and a.factures_id_facture = :idFacture)";
+
+	@Override
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	Iterable<Operateur> findAll();
 }
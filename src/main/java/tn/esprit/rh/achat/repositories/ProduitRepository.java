@@ -1,12 +1,36 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.ProduitDTO;
 import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.util.Money;
+
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface ProduitRepository extends JpaRepository<Produit, Long> {
 
+	/*
+	 * Projections pour les endpoints de lecture : le DTO est construit par la requête,
+	 * sans entité gérée ni snapshot de dirty-checking
+	 */
+	String PRODUIT_DTO = "SELECT new tn.esprit.rh.achat.dto.ProduitDTO(p.idProduit, p.codeProduit, p.libelleProduit,"
+			+ " p.prix / " + Money.JPQL_UNIT + ", p.dateCreation, p.dateDerniereModification) FROM Produit p";
+
+	@Query(PRODUIT_DTO)
+	List<ProduitDTO> findAllDTO();
+
+	@Query(PRODUIT_DTO + " where p.idProduit > :afterId"
+			+ " and (:startDate is null or p.dateCreation >= :startDate)"
+			+ " and (:endDate is null or p.dateCreation <= :endDate) order by p.idProduit")
+	List<ProduitDTO> findDTOPage(@Param("afterId") Long afterId, @Param("startDate") Date startDate,
+			@Param("endDate") Date endDate, Pageable pageable);
+
 	
 	
 	
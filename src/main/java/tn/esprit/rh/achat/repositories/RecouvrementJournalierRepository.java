@@ -0,0 +1,30 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.entities.RecouvrementJournalier;
+
+import java.time.LocalDate;
+
+@Repository
+public interface RecouvrementJournalierRepository extends JpaRepository<RecouvrementJournalier, Long> {
+
+	/*
+	 * Création de la ligne (jour, fournisseur) ou, si une autre transaction vient de la
+	 * créer, ajout des montants : une seule instruction dans la transaction appelante,
+	 * sans seconde connexion (RecouvrementRollup.increment)
+	 */
+	String CREER_OU_INCREMENTER = "insert into recouvrement_journalier"
+			+ " (id_recouvrement_journalier, jour, id_fournisseur, montant_facture, montant_paye)"
+			+ " values (:id, :jour, :idFournisseur, :montantFacture, :montantPaye)"
+			+ " on duplicate key update montant_facture = montant_facture + :montantFacture,"
+			+ " montant_paye = montant_paye + :montantPaye";
+
+	@Query("SELECT coalesce(sum(r.montantFacture), 0) FROM RecouvrementJournalier r where r.jour between :startDate and :endDate")
+	long getTotalFacturesEntreDeuxDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query("SELECT coalesce(sum(r.montantPaye), 0) FROM RecouvrementJournalier r where r.jour between :startDate and :endDate")
+	long getTotalPayeEntreDeuxDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,20 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.ReglementDTO;
+import tn.esprit.rh.achat.entities.ReglementArchive;
+import tn.esprit.rh.achat.util.Money;
+
+import java.util.List;
+
+@Repository
+public interface ReglementArchiveRepository extends CrudRepository<ReglementArchive, Long> {
+
+	@Query("SELECT new tn.esprit.rh.achat.dto.ReglementDTO(r.idReglement, r.montantPaye / " + Money.JPQL_UNIT
+			+ ", r.montantRestant / " + Money.JPQL_UNIT + ", r.dateReglement, r.payee) FROM ReglementArchive r"
+			+ " where r.idFacture = :idFacture")
+	List<ReglementDTO> findDTOByFacture(@Param("idFacture") Long idFacture);
+}
@@ -1,13 +1,22 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.ReglementDTO;
 import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.util.Money;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ReglementRepository extends CrudRepository<Reglement, Long>{
@@ -17,5 +26,49 @@ public interface ReglementRepository extends CrudRepository<Reglement, Long>{
 	
 	@Query("SELECT sum(r.montantPaye) FROM Reglement r where  r.dateReglement between :startDate"
 			+ " and :endDate and r.facture.archivee=false")
-	float getChiffreAffaireEntreDeuxDate(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+	Long getChiffreAffaireEntreDeuxDate(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+	@Query("SELECT r.dateReglement, fr.idFournisseur, sum(r.montantPaye) FROM Reglement r join r.facture f"
+			+ " left join f.fournisseur fr where f.archivee=false and r.dateReglement is not null"
+			+ " group by r.dateReglement, fr.idFournisseur")
+	List<Object[]> sumReglementsParJourEtFournisseur();
+
+	/** mêmes sommes, limitées aux factures d'un lot d'annulation */
+	@Query("SELECT r.dateReglement, fr.idFournisseur, sum(r.montantPaye) FROM Reglement r join r.facture f"
+			+ " left join f.fournisseur fr where f.idFacture in :idsFacture and f.archivee=false"
+			+ " and r.dateReglement is not null group by r.dateReglement, fr.idFournisseur")
+	List<Object[]> sumReglementsParJourEtFournisseur(@Param("idsFacture") Collection<Long> idsFacture);
+
+	@Query("SELECT r.dateReglement, sum(r.montantPaye) FROM Reglement r where r.facture.archivee=false"
+			+ " and r.dateReglement is not null group by r.dateReglement")
+	List<Object[]> sumReglementsParJour();
+
+	/*
+	 * Projections pour les endpoints de lecture : le DTO est construit par la requête,
+	 * sans entité gérée ni snapshot de dirty-checking
+	 */
+	String REGLEMENT_DTO = "SELECT new tn.esprit.rh.achat.dto.ReglementDTO(r.idReglement, r.montantPaye / " + Money.JPQL_UNIT
+			+ ", r.montantRestant / " + Money.JPQL_UNIT + ", r.dateReglement, r.payee) FROM Reglement r";
+
+	@Query(REGLEMENT_DTO)
+	List<ReglementDTO> findAllDTO();
+
+	@Query(REGLEMENT_DTO + " where r.idReglement > :afterId"
+			+ " and (:startDate is null or r.dateReglement >= :startDate)"
+			+ " and (:endDate is null or r.dateReglement <= :endDate) order by r.idReglement")
+	List<ReglementDTO> findDTOPage(@Param("afterId") Long afterId, @Param("startDate") Date startDate,
+			@Param("endDate") Date endDate, Pageable pageable);
+
+	@Query(REGLEMENT_DTO + " where r.facture.idFacture=:idFacture")
+	List<ReglementDTO> findDTOByFacture(@Param("idFacture") Long idFacture);
+
+	/*
+	 * Export en flux : projection DTO, la facture EAGER de chaque règlement n'est pas chargée
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query(REGLEMENT_DTO + " left join r.facture f where (:startDate is null or r.dateReglement >= :startDate)"
+			+ " and (:endDate is null or r.dateReglement <= :endDate)"
+			+ " and (:idFournisseur is null or f.fournisseur.idFournisseur = :idFournisseur) order by r.idReglement")
+	Stream<ReglementDTO> streamForExport(@Param("startDate") Date startDate, @Param("endDate") Date endDate,
+			@Param("idFournisseur") Long idFournisseur);
 }
@@ -1,10 +1,18 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tn.esprit.rh.achat.entities.SecteurActivite;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface SecteurActiviteRepository extends CrudRepository<SecteurActivite, Long> {
 
+	@Override
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	Iterable<SecteurActivite> findAll();
 }
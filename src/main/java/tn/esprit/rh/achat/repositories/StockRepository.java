@@ -1,8 +1,11 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.rh.achat.dto.StockDTO;
 import tn.esprit.rh.achat.entities.Stock;
 
 import java.util.List;
@@ -22,6 +25,26 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
 	
 	
 	
-	@Query("SELECT s FROM Stock s where s.qte< s.qteMin")
-	List<Stock> retrieveStatusStock();
+	/*
+	 * en_rouge passé en paramètre : le littéral true devient "= 1" avec le dialecte MySQL,
+	 * qu'H2 compare à la colonne BIT sans passer par idx_stock_en_rouge
+	 */
+	@Query("SELECT s FROM Stock s where s.enRouge = :enRouge")
+	List<Stock> findByEnRouge(@Param("enRouge") boolean enRouge);
+
+	default List<Stock> retrieveStatusStock() {
+		return findByEnRouge(true);
+	}
+
+	/*
+	 * Projections pour les endpoints de lecture : le DTO est construit par la requête,
+	 * sans entité gérée ni snapshot de dirty-checking
+	 */
+	String STOCK_DTO = "SELECT new tn.esprit.rh.achat.dto.StockDTO(s.idStock, s.libelleStock, s.qte, s.qteMin) FROM Stock s";
+
+	@Query(STOCK_DTO)
+	List<StockDTO> findAllDTO();
+
+	@Query(STOCK_DTO + " where s.idStock > :afterId order by s.idStock")
+	List<StockDTO> findDTOPage(@Param("afterId") Long afterId, Pageable pageable);
 }
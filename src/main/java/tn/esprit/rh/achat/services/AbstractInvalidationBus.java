@@ -0,0 +1,50 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Gestion des abonnés locaux, commune aux implémentations d'InvalidationBus.
+ */
+@Slf4j
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+
+	private final Map<String, List<Consumer<Long>>> abonnes = new ConcurrentHashMap<>();
+
+	@Override
+	public void subscribe(Class<?> entityClass, Consumer<Long> listener) {
+		abonnes.computeIfAbsent(entityClass.getSimpleName(), k -> new CopyOnWriteArrayList<>()).add(listener);
+	}
+
+	/** Invalide les caches locaux, une fois la transaction en cours commitée. */
+	protected void deliverAfterCommit(String typeEntite, Long id) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					deliver(typeEntite, id);
+				}
+			});
+		} else {
+			deliver(typeEntite, id);
+		}
+	}
+
+	protected void deliver(String typeEntite, Long id) {
+		for (Consumer<Long> abonne : abonnes.getOrDefault(typeEntite, List.of())) {
+			try {
+				abonne.accept(id);
+			} catch (RuntimeException e) {
+				// un cache défaillant ne doit pas empêcher l'invalidation des autres
+				log.warn("Échec de l'invalidation {} #{}", typeEntite, id, e);
+			}
+		}
+	}
+}
@@ -13,6 +13,8 @@ public class CategorieProduitServiceImpl implements ICategorieProduitService {
 	
 	@Autowired
 	CategorieProduitRepository categorieProduitRepository;
+	@Autowired
+	InvalidationBus invalidationBus;
 	@Override
 	public List<CategorieProduit> retrieveAllCategorieProduits() {
 		
@@ -22,18 +24,21 @@ public class CategorieProduitServiceImpl implements ICategorieProduitService {
 	@Override
 	public CategorieProduit addCategorieProduit(CategorieProduit cp) {
 		categorieProduitRepository.save(cp);
+		invalidationBus.publish(CategorieProduit.class, cp.getIdCategorieProduit());
 		return cp;
 	}
 
 	@Override
 	public void deleteCategorieProduit(Long id) {
 		categorieProduitRepository.deleteById(id);
+		invalidationBus.publish(CategorieProduit.class, id);
 		
 	}
 
 	@Override
 	public CategorieProduit updateCategorieProduit(CategorieProduit cp) {
 		categorieProduitRepository.save(cp);
+		invalidationBus.publish(CategorieProduit.class, cp.getIdCategorieProduit());
 		return cp;
 	}
 
@@ -0,0 +1,108 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tn.esprit.rh.achat.entities.ChangementEntite;
+import tn.esprit.rh.achat.repositories.ChangementEntiteRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Bus d'invalidation sans autre infrastructure que MySQL : chaque publication
+ * insère une ligne dans changement_entite (dans la transaction de la
+ * modification, donc jamais pour une modification annulée) et chaque réplica lit
+ * périodiquement les lignes récentes des autres réplicas.
+ *
+ * Les identifiants pooled ne suivent pas l'ordre des commits : la lecture se fait
+ * donc par horodatage sur une fenêtre glissante (achat.invalidation.lookback, qui
+ * couvre la durée des transactions et le décalage d'horloge entre pods), les
+ * lignes déjà traitées étant ignorées. Une invalidation rejouée reste sans effet.
+ */
+@Component
+@ConditionalOnProperty(name = "achat.invalidation.bus", havingValue = "database", matchIfMissing = true)
+@Slf4j
+public class DatabaseInvalidationBus extends AbstractInvalidationBus {
+
+	private static final int MAX_DEJA_TRAITES = 10_000;
+
+	private final String instance = UUID.randomUUID().toString();
+	private final Set<Long> dejaTraites = Collections.newSetFromMap(new LinkedHashMap<Long, Boolean>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+			return size() > MAX_DEJA_TRAITES;
+		}
+	});
+	private Counter publiees;
+	private long debutDernierPoll = System.currentTimeMillis();
+
+	@Autowired
+	ChangementEntiteRepository changementEntiteRepository;
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${achat.invalidation.lookback:10s}")
+	Duration lookback;
+	@Value("${achat.invalidation.retention:1h}")
+	Duration retention;
+
+	@PostConstruct
+	void registerMetrics() {
+		publiees = Counter.builder("achat.invalidation.published")
+				.description("Invalidations publiées par ce réplica")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void publish(Class<?> entityClass, Long id) {
+		if (id == null) {
+			return;
+		}
+		String typeEntite = entityClass.getSimpleName();
+		changementEntiteRepository.save(new ChangementEntite(null, typeEntite, id, instance, System.currentTimeMillis()));
+		publiees.increment();
+		deliverAfterCommit(typeEntite, id);
+	}
+
+	@Scheduled(fixedDelayString = "${achat.invalidation.poll-interval:1000}")
+	public void poll() {
+		long debut = System.currentTimeMillis();
+		long depuis = debutDernierPoll - lookback.toMillis();
+		for (ChangementEntite changement : changementEntiteRepository.findChangementsDepuis(depuis, instance)) {
+			if (!dejaTraites.add(changement.getIdChangementEntite())) {
+				continue;
+			}
+			deliver(changement.getTypeEntite(), changement.getIdEntite());
+			Timer.builder("achat.invalidation.propagation")
+					.description("Délai entre la publication d'une invalidation et son application sur ce réplica")
+					.tag("type", changement.getTypeEntite())
+					.publishPercentileHistogram()
+					.register(meterRegistry)
+					.record(Math.max(0, System.currentTimeMillis() - changement.getHorodatage()), TimeUnit.MILLISECONDS);
+		}
+		debutDernierPoll = debut;
+	}
+
+	@Scheduled(fixedDelayString = "${achat.invalidation.purge-interval:600000}")
+	public void purger() {
+		int supprimes = changementEntiteRepository.purger(System.currentTimeMillis() - retention.toMillis());
+		if (supprimes > 0) {
+			log.debug("{} changements d'entités purgés", supprimes);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package tn.esprit.rh.achat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.dto.ReglementDTO;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/*
+ * Exports en flux : les lignes sont lues via un curseur (Stream JPA) directement
+ * sous forme de DTO et écrites dans la réponse ; aucune entité n'entre dans le
+ * contexte de persistance, la mémoire utilisée et le nombre de requêtes restent
+ * donc constants quel que soit le volume exporté.
+ */
+@Service
+@Slf4j
+public class ExportServiceImpl implements IExportService {
+
+	private static final String[] FACTURE_CSV_HEADER = { "idFacture", "montantRemise", "montantFacture",
+			"dateCreationFacture", "dateDerniereModificationFacture", "archivee" };
+	private static final String[] REGLEMENT_CSV_HEADER = { "idReglement", "montantPaye", "montantRestant",
+			"dateReglement", "payee" };
+
+	@Autowired
+	FactureRepository factureRepository;
+	@Autowired
+	ReglementRepository reglementRepository;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportFactures(Date startDate, Date endDate, Long idFournisseur, ExportFormat format, OutputStream out)
+			throws IOException {
+		try (Stream<FactureDTO> factures = factureRepository.streamForExport(startDate, endDate, idFournisseur)) {
+			long count = export(factures.iterator(), FactureDTO.class, format, FACTURE_CSV_HEADER,
+					dto -> new Object[] { dto.getIdFacture(), dto.getMontantRemise(), dto.getMontantFacture(),
+							dto.getDateCreationFacture(), dto.getDateDerniereModificationFacture(), dto.getArchivee() },
+					out);
+			log.info("Export factures : {} lignes ({})", count, format);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportReglements(Date startDate, Date endDate, Long idFournisseur, ExportFormat format, OutputStream out)
+			throws IOException {
+		try (Stream<ReglementDTO> reglements = reglementRepository.streamForExport(startDate, endDate, idFournisseur)) {
+			long count = export(reglements.iterator(), ReglementDTO.class, format, REGLEMENT_CSV_HEADER,
+					dto -> new Object[] { dto.getIdReglement(), dto.getMontantPaye(), dto.getMontantRestant(),
+							dto.getDateReglement(), dto.getPayee() },
+					out);
+			log.info("Export reglements : {} lignes ({})", count, format);
+		}
+	}
+
+	private <D> long export(Iterator<D> rows, Class<D> dtoType, ExportFormat format,
+			String[] csvHeader, Function<D, Object[]> csvValues, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		ObjectWriter jsonWriter = objectMapper.writerFor(dtoType);
+		if (format == ExportFormat.CSV) {
+			writeCsvLine(writer, csvHeader);
+		}
+		long count = 0;
+		while (rows.hasNext()) {
+			D dto = rows.next();
+			if (format == ExportFormat.CSV) {
+				writeCsvLine(writer, csvValues.apply(dto));
+			} else {
+				writer.write(jsonWriter.writeValueAsString(dto));
+				writer.write('\n');
+			}
+			count++;
+		}
+		writer.flush();
+		return count;
+	}
+
+	private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(csvField(values[i]));
+		}
+		writer.write("\r\n");
+	}
+
+	private String csvField(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String text = value instanceof Date ? new java.sql.Date(((Date) value).getTime()).toString() : value.toString();
+		if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+			return '"' + text.replace("\"", "\"\"") + '"';
+		}
+		return text;
+	}
+
+}
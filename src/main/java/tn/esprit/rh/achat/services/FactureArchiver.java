@@ -0,0 +1,90 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.rh.achat.entities.Operateur;
+import tn.esprit.rh.achat.repositories.FactureArchiveRepository;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.Date;
+import java.util.List;
+
+/*
+ * Déplace les factures archivées (archivee=true), leurs lignes et leurs règlements
+ * vers facture_archive, detail_facture_archive et reglement_archive : les endpoints
+ * opérationnels ne lisent jamais ces factures, les tables chaudes et leurs index
+ * restent à la taille des factures actives. L'archive n'est lue que sur demande
+ * (includeArchive=true, voir FactureServiceImpl et ReglementServiceImpl).
+ *
+ * Un lot de TAILLE_LOT factures par transaction, verrouillées avant la copie.
+ * Désactivé par défaut : à planifier sur une seule instance via achat.archive.cron,
+ * ou à lancer par POST /facture/archive.
+ */
+@Component
+@Slf4j
+public class FactureArchiver {
+
+	static final int TAILLE_LOT = 500;
+
+	@Autowired
+	FactureRepository factureRepository;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	@PersistenceContext
+	EntityManager entityManager;
+
+	private TransactionTemplate transactionParLot;
+
+	@PostConstruct
+	void init() {
+		transactionParLot = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(cron = "${achat.archive.cron:-}")
+	public int archiver() {
+		int total = 0;
+		Integer deplacees;
+		do {
+			deplacees = transactionParLot.execute(status -> deplacerLot());
+			total += deplacees;
+		} while (deplacees == TAILLE_LOT);
+		log.info("{} factures archivées déplacées vers les tables d'archive", total);
+		return total;
+	}
+
+	private int deplacerLot() {
+		List<Long> ids = factureRepository.lockFacturesArchivees(PageRequest.of(0, TAILLE_LOT));
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.COPIER_FACTURES)
+				.setParameter("dateArchivage", new Date()), ids, FactureArchiveRepository.TABLE);
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.COPIER_DETAILS), ids,
+				FactureArchiveRepository.TABLE_DETAILS);
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.COPIER_REGLEMENTS), ids,
+				FactureArchiveRepository.TABLE_REGLEMENTS);
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.SUPPRIMER_AFFECTATIONS), ids,
+				Operateur.TABLE_FACTURES);
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.SUPPRIMER_REGLEMENTS), ids, "reglement");
+		executer(entityManager.createNativeQuery(FactureArchiveRepository.SUPPRIMER_DETAILS), ids, "detail_facture");
+		return executer(entityManager.createNativeQuery(FactureArchiveRepository.SUPPRIMER_FACTURES), ids, "facture");
+	}
+
+	/** l'espace de requête limite l'éviction du cache de second niveau à la table modifiée */
+	private static int executer(Query query, List<Long> ids, String table) {
+		return query.setParameter("ids", ids)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace(table)
+				.executeUpdate();
+	}
+}
@@ -1,21 +1,45 @@
 package tn.esprit.rh.achat.services;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.FactureDTO;
 import tn.esprit.rh.achat.entities.*;
 import tn.esprit.rh.achat.repositories.*;
+import tn.esprit.rh.achat.util.LogSampler;
+import tn.esprit.rh.achat.util.Money;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @Transactional
 public class FactureServiceImpl implements IFactureService {
 
+	/** factures par UPDATE lors d'une annulation en masse */
+	static final int TAILLE_LOT = 500;
+	/** ordre des pages par fournisseur : date de création décroissante (sans date en dernier), puis id */
+	static final Comparator<FactureDTO> ORDRE_PAR_FOURNISSEUR = Comparator
+			.comparing(FactureDTO::getDateCreationFacture, Comparator.nullsLast(Comparator.reverseOrder()))
+			.thenComparing(FactureDTO::getIdFacture, Comparator.reverseOrder());
+
 	@Autowired
 	FactureRepository factureRepository;
 	@Autowired
@@ -28,88 +52,304 @@ public class FactureServiceImpl implements IFactureService {
 	ProduitRepository produitRepository;
     @Autowired
     ReglementServiceImpl reglementService;
+	@Autowired
+	ReglementRepository reglementRepository;
+	@Autowired
+	ProduitPrixCache produitPrixCache;
+	@Autowired
+	RecouvrementRollup recouvrementRollup;
+	@Autowired(required = false)
+	RevenueIndex revenueIndex;
+	@Autowired
+	InvalidationBus invalidationBus;
+	@Autowired
+	FactureArchiveRepository factureArchiveRepository;
+	@Autowired
+	FactureArchiver factureArchiver;
+	@Autowired
+	LogSampler logSampler;
+	@PersistenceContext
+	EntityManager entityManager;
 	
 	@Override
-	public List<Facture> retrieveAllFactures() {
-		List<Facture> factures = (List<Facture>) factureRepository.findAll();
-		for (Facture facture : factures) {
-			log.info(" facture : " + facture);
-		}
+	@Transactional(readOnly = true)
+	public List<FactureDTO> retrieveAllFactures() {
+		List<FactureDTO> factures = factureRepository.findAllDTO();
+		logSampler.echantillonner(log, factures, f -> log.debug("Facture {} du {} : montant {}, archivée {}",
+				f.getIdFacture(), f.getDateCreationFacture(), f.getMontantFacture(), f.getArchivee()));
 		return factures;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<FactureDTO> retrieveFacturesPage(Long afterId, int limit, Date startDate, Date endDate) {
+		return factureRepository.findDTOPage(afterId, startDate, endDate, PageRequest.of(0, limit));
+	}
+
 	
 	public Facture addFacture(Facture f) {
-		return factureRepository.save(f);
+		Facture facture = factureRepository.save(f);
+		recouvrementRollup.factureAjoutee(facture);
+		return facture;
+	}
+
+	/*
+	 * Création en masse (import fournisseur) : les prix de tous les produits
+	 * référencés sont lus en un seul appel au cache des prix (une seule requête
+	 * pour les produits absents du cache), les montants sont calculés
+	 * en mémoire et les lignes sont insérées par lots JDBC (ids pooled +
+	 * hibernate.jdbc.batch_size).
+	 */
+	@Override
+	public List<Facture> addFactures(List<Facture> factures) {
+		Set<Long> idsProduits = new HashSet<>();
+		for (Facture f : factures) {
+			for (DetailFacture detail : detailsOf(f)) {
+				idsProduits.add(detail.getProduit().getIdProduit());
+			}
+		}
+		Map<Long, ProduitPrix> produits = produitPrixCache.getAll(idsProduits);
+
+		Date now = new Date();
+		List<DetailFacture> details = new ArrayList<>();
+		for (Facture f : factures) {
+			if (f.getFournisseur() != null && f.getFournisseur().getIdFournisseur() != null) {
+				f.setFournisseur(fournisseurRepository.getReferenceById(f.getFournisseur().getIdFournisseur()));
+			}
+			if (f.getDateCreationFacture() == null) {
+				f.setDateCreationFacture(now);
+			}
+			f.setDateDerniereModificationFacture(now);
+			f.setArchivee(false);
+			addDetailsFacture(f, detailsOf(f), produits);
+			for (DetailFacture detail : detailsOf(f)) {
+				detail.setProduit(produitRepository.getReferenceById(detail.getProduit().getIdProduit()));
+				detail.setFacture(f);
+				details.add(detail);
+			}
+		}
+		factureRepository.saveAll(factures);
+		detailFactureRepository.saveAll(details);
+		for (Facture f : factures) {
+			recouvrementRollup.factureAjoutee(f);
+		}
+		log.info("{} factures et {} lignes importées", factures.size(), details.size());
+		return factures;
+	}
+
+	private static Set<DetailFacture> detailsOf(Facture f) {
+		return f.getDetailsFacture() != null ? f.getDetailsFacture() : Collections.emptySet();
 	}
 
 	/*
 	 * calculer les montants remise et le montant total d'un détail facture
-	 * ainsi que les montants d'une facture
+	 * ainsi que les montants d'une facture (en millimes, sans erreur d'arrondi cumulée)
 	 */
-	private Facture addDetailsFacture(Facture f, Set<DetailFacture> detailsFacture) {
-		float montantFacture = 0;
-		float montantRemise = 0;
+	Facture addDetailsFacture(Facture f, Set<DetailFacture> detailsFacture, Map<Long, ProduitPrix> produits) {
+		long montantFacture = 0;
+		long montantRemise = 0;
 		for (DetailFacture detail : detailsFacture) {
-			//Récuperer le produit 
-			Produit produit = produitRepository.findById(detail.getProduit().getIdProduit()).get();
+			//Récuperer le prix du produit (déjà chargé)
+			ProduitPrix produit = produits.get(detail.getProduit().getIdProduit());
+			if (produit == null) {
+				throw new IllegalArgumentException("Produit introuvable : " + detail.getProduit().getIdProduit());
+			}
+			if (detail.getPourcentageRemise() == null) {
+				detail.setPourcentageRemise(0);
+			}
 			//Calculer le montant total pour chaque détail Facture
-			float prixTotalDetail = detail.getQteCommandee() * produit.getPrix();
+			long prixTotalDetail = Money.multiply(produit.getPrix(), detail.getQteCommandee());
 			//Calculer le montant remise pour chaque détail Facture
-			float montantRemiseDetail = (prixTotalDetail * detail.getPourcentageRemise()) / 100;
-			float prixTotalDetailRemise = prixTotalDetail - montantRemiseDetail;
+			long montantRemiseDetail = Money.percentage(prixTotalDetail, detail.getPourcentageRemise());
+			long prixTotalDetailRemise = Money.subtract(prixTotalDetail, montantRemiseDetail);
 			detail.setMontantRemise(montantRemiseDetail);
 			detail.setPrixTotalDetail(prixTotalDetailRemise);
 			//Calculer le montant total pour la facture
-			montantFacture = montantFacture + prixTotalDetailRemise;
+			montantFacture = Money.add(montantFacture, prixTotalDetailRemise);
 			//Calculer le montant remise pour la facture
-			montantRemise = montantRemise + montantRemiseDetail;
-			detailFactureRepository.save(detail);
+			montantRemise = Money.add(montantRemise, montantRemiseDetail);
 		}
 		f.setMontantFacture(montantFacture);
 		f.setMontantRemise(montantRemise);
 		return f;
 	}
 
+	/*
+	 * Facture verrouillée (select ... for update) comme dans cancelFactures : deux
+	 * annulations concurrentes ne retirent pas deux fois ses montants des agrégats.
+	 * Seule une facture active (archivee = false) y a été comptée : une facture à
+	 * archivee NULL est archivée sans toucher aux agrégats, comme dans archiverLot
+	 */
 	@Override
 	public void cancelFacture(Long factureId) {
-		// Méthode 01
-		//Facture facture = factureRepository.findById(factureId).get();
-		Facture facture = factureRepository.findById(factureId).orElse(new Facture());
+		Facture facture = factureRepository.lockById(factureId).orElse(null);
+		if (facture == null) {
+			log.warn("Annulation de la facture {} : facture introuvable", factureId);
+			return;
+		}
+		if (!Boolean.FALSE.equals(facture.getArchivee())) {
+			facture.setArchivee(true);
+			return;
+		}
+		List<Reglement> reglements = reglementRepository.retrieveReglementByFacture(factureId);
+		recouvrementRollup.factureArchivee(facture, reglements);
+		if (revenueIndex != null) {
+			revenueIndex.factureArchivee(factureId, reglements);
+		}
 		facture.setArchivee(true);
-		factureRepository.save(facture);
-		//Méthode 02 (Avec JPQL)
-		factureRepository.updateFacture(factureId);
+		invalidationBus.publish(Facture.class, factureId);
+	}
+
+	/*
+	 * Annulation en masse (clôture trimestrielle), dans une seule transaction :
+	 * par lot de TAILLE_LOT factures, verrouillage des factures encore actives,
+	 * deux sommes groupées pour les agrégats de recouvrement et l'index du chiffre
+	 * d'affaires, puis un seul UPDATE. Facture n'est pas dans le cache de second
+	 * niveau ; l'UPDATE JPQL invalide le cache de requêtes de la table facture.
+	 */
+	@Override
+	public int cancelFactures(Collection<Long> ids) {
+		List<Long> distincts = new ArrayList<>(new LinkedHashSet<>(ids));
+		int archivees = 0;
+		for (int i = 0; i < distincts.size(); i += TAILLE_LOT) {
+			List<Long> lot = distincts.subList(i, Math.min(i + TAILLE_LOT, distincts.size()));
+			archivees += archiverLot(factureRepository.lockFacturesActives(lot));
+		}
+		log.info("{} factures annulées sur {} demandées", archivees, distincts.size());
+		return archivees;
+	}
+
+	/** toutes les factures actives du fournisseur créées entre deux dates (bornes optionnelles) */
+	@Override
+	public int cancelFacturesByFournisseur(Long idFournisseur, Date startDate, Date endDate) {
+		PageRequest page = PageRequest.of(0, TAILLE_LOT);
+		int archivees = 0;
+		long afterId = 0;
+		List<Long> lot;
+		do {
+			lot = factureRepository.lockFacturesActivesByFournisseur(idFournisseur, startDate, endDate, afterId, page);
+			if (!lot.isEmpty()) {
+				archivees += archiverLot(lot);
+				afterId = lot.get(lot.size() - 1);
+			}
+		} while (lot.size() == TAILLE_LOT);
+		log.info("{} factures du fournisseur {} annulées", archivees, idFournisseur);
+		return archivees;
+	}
+
+	/** les montants sont lus avant l'UPDATE : les sommes ne portent que sur les factures non archivées */
+	private int archiverLot(List<Long> lot) {
+		if (lot.isEmpty()) {
+			return 0;
+		}
+		List<Object[]> reglements = reglementRepository.sumReglementsParJourEtFournisseur(lot);
+		recouvrementRollup.facturesArchivees(factureRepository.sumFacturesParJourEtFournisseur(lot), reglements);
+		if (revenueIndex != null) {
+			revenueIndex.facturesArchivees(lot, reglements);
+		}
+		int archivees = factureRepository.archiverFactures(lot);
+		lot.forEach(id -> invalidationBus.publish(Facture.class, id));
+		return archivees;
 	}
 
 	@Override
 	public Facture retrieveFacture(Long factureId) {
 
 		Facture facture = factureRepository.findById(factureId).orElse(null);
-		log.info("facture :" + facture);
+		if (logSampler.echantillon(log)) {
+			log.debug("Facture {} {}", factureId, facture != null ? "trouvée" : "introuvable");
+		}
 		return facture;
 	}
 
+	/*
+	 * Une page de factures du fournisseur lue sur l'index (fournisseur, archivee,
+	 * date_creation_facture), sans charger le fournisseur ni sa collection de factures.
+	 * afterId null : première page ; afterDate null avec afterId : suite des factures sans date.
+	 */
 	@Override
-	public List<Facture> getFacturesByFournisseur(Long idFournisseur) {
-		Fournisseur fournisseur = fournisseurRepository.findById(idFournisseur).orElse(null);
-		return (List<Facture>) fournisseur.getFactures();
+	@Transactional(readOnly = true)
+	public List<FactureDTO> getFacturesByFournisseur(Long idFournisseur, boolean archivee, Date startDate,
+			Date endDate, Date afterDate, Long afterId, int limit) {
+		PageRequest page = PageRequest.of(0, limit);
+		if (afterId == null) {
+			return factureRepository.findDTOByFournisseur(idFournisseur, archivee, startDate, endDate, page);
+		}
+		if (afterDate == null) {
+			return factureRepository.findDTOByFournisseurSansDateAfter(idFournisseur, archivee, afterId, page);
+		}
+		return factureRepository.findDTOByFournisseurAfter(idFournisseur, archivee, startDate, endDate, afterDate,
+				afterId, page);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public FactureDTO retrieveFactureArchivee(Long factureId) {
+		return factureArchiveRepository.findDTOByIdFacture(factureId).orElse(null);
+	}
+
+	/*
+	 * Factures archivées du fournisseur, tables chaudes (pas encore déplacées) et
+	 * archive : une page de chaque avec la même clé, fusionnées puis tronquées
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<FactureDTO> getFacturesArchiveesByFournisseur(Long idFournisseur, Date startDate, Date endDate,
+			Date afterDate, Long afterId, int limit) {
+		PageRequest page = PageRequest.of(0, limit);
+		List<FactureDTO> archive;
+		if (afterId == null) {
+			archive = factureArchiveRepository.findDTOByFournisseur(idFournisseur, startDate, endDate, page);
+		} else if (afterDate == null) {
+			archive = factureArchiveRepository.findDTOByFournisseurSansDateAfter(idFournisseur, afterId, page);
+		} else {
+			archive = factureArchiveRepository.findDTOByFournisseurAfter(idFournisseur, startDate, endDate,
+					afterDate, afterId, page);
+		}
+		List<FactureDTO> chaudes = getFacturesByFournisseur(idFournisseur, true, startDate, endDate, afterDate,
+				afterId, limit);
+		return Stream.concat(chaudes.stream(), archive.stream())
+				.sorted(ORDRE_PAR_FOURNISSEUR)
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public int archiverFactures() {
+		return factureArchiver.archiver();
+	}
+
+	/*
+	 * Une seule insertion dans la table d'association : passer par
+	 * operateur.getFactures().add(...) chargeait toute la collection, et le
+	 * fournisseur EAGER de chaque facture, pour ajouter une ligne.
+	 * L'espace de requête déclaré évite qu'Hibernate vide toutes les régions du
+	 * cache de second niveau, comme il le fait pour une requête native sans espace.
+	 */
 	@Override
 	public void assignOperateurToFacture(Long idOperateur, Long idFacture) {
-		Facture facture = factureRepository.findById(idFacture).orElse(null);
-		Operateur operateur = operateurRepository.findById(idOperateur).orElse(null);
-		operateur.getFactures().add(facture);
-		operateurRepository.save(operateur);
+		int lignes = entityManager.createNativeQuery(OperateurRepository.AFFECTER_FACTURE)
+				.setParameter("idOperateur", idOperateur)
+				.setParameter("idFacture", idFacture)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace(Operateur.TABLE_FACTURES)
+				.executeUpdate();
+		if (lignes == 0) {
+			log.debug("Facture {} déjà affectée à l'opérateur {}, ou introuvable", idFacture, idOperateur);
+		}
 	}
 
 	@Override
 	public float pourcentageRecouvrement(Date startDate, Date endDate) {
-		float totalFacturesEntreDeuxDates = factureRepository.getTotalFacturesEntreDeuxDates(startDate,endDate);
-		float totalRecouvrementEntreDeuxDates =reglementService.getChiffreAffaireEntreDeuxDate(startDate,endDate);
-		float pourcentage=(totalRecouvrementEntreDeuxDates/totalFacturesEntreDeuxDates)*100;
-		return pourcentage;
+		long totalFacturesEntreDeuxDates = recouvrementRollup.getTotalFacturesEntreDeuxDates(startDate,endDate);
+		long totalRecouvrementEntreDeuxDates = reglementService.getTotalPayeEntreDeuxDates(startDate,endDate);
+		return Money.ratio(totalRecouvrementEntreDeuxDates, totalFacturesEntreDeuxDates);
+	}
+
+	@Override
+	public int rebuildRecouvrement() {
+		return recouvrementRollup.rebuild();
 	}
 	
 
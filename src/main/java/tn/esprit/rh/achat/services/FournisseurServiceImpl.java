@@ -2,7 +2,10 @@ package tn.esprit.rh.achat.services;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
 import tn.esprit.rh.achat.entities.DetailFournisseur;
 import tn.esprit.rh.achat.entities.Fournisseur;
 import tn.esprit.rh.achat.entities.SecteurActivite;
@@ -10,6 +13,7 @@ import tn.esprit.rh.achat.repositories.DetailFournisseurRepository;
 import tn.esprit.rh.achat.repositories.FournisseurRepository;
 import tn.esprit.rh.achat.repositories.ProduitRepository;
 import tn.esprit.rh.achat.repositories.SecteurActiviteRepository;
+import tn.esprit.rh.achat.util.LogSampler;
 
 import java.util.Date;
 import java.util.List;
@@ -21,6 +25,8 @@ public class FournisseurServiceImpl implements IFournisseurService {
 	@Autowired
 	FournisseurRepository fournisseurRepository;
 	@Autowired
+	LogSampler logSampler;
+	@Autowired
 	DetailFournisseurRepository detailFournisseurRepository;
 	@Autowired
 	ProduitRepository produitRepository;
@@ -28,14 +34,20 @@ public class FournisseurServiceImpl implements IFournisseurService {
 	SecteurActiviteRepository secteurActiviteRepository;
 
 	@Override
-	public List<Fournisseur> retrieveAllFournisseurs() {
-		List<Fournisseur> fournisseurs = (List<Fournisseur>) fournisseurRepository.findAll();
-		for (Fournisseur fournisseur : fournisseurs) {
-			log.info(" fournisseur : " + fournisseur);
-		}
+	@Transactional(readOnly = true)
+	public List<FournisseurDTO> retrieveAllFournisseurs() {
+		List<FournisseurDTO> fournisseurs = fournisseurRepository.findAllDTO();
+		logSampler.echantillonner(log, fournisseurs, f -> log.debug("Fournisseur {} {} ({})", f.getIdFournisseur(),
+				f.getCode(), f.getCategorieFournisseur()));
 		return fournisseurs;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<FournisseurDTO> retrieveFournisseursPage(Long afterId, int limit) {
+		return fournisseurRepository.findDTOPage(afterId, PageRequest.of(0, limit));
+	}
+
 
 	public Fournisseur addFournisseur(Fournisseur f /*Master*/) {
 		DetailFournisseur df= new DetailFournisseur();//Slave
@@ -53,6 +65,17 @@ public class FournisseurServiceImpl implements IFournisseurService {
 	}
 
 	public Fournisseur updateFournisseur(Fournisseur f) {
+		if (f.getDetailFournisseur() == null && f.getIdFournisseur() != null) {
+			// modification depuis un FournisseurDTO : seuls ses champs sont repris, le détail
+			// et les secteurs d'activité enregistrés sont conservés (et non chargés)
+			Fournisseur existant = fournisseurRepository.findById(f.getIdFournisseur()).orElse(null);
+			if (existant != null) {
+				existant.setCode(f.getCode());
+				existant.setLibelle(f.getLibelle());
+				existant.setCategorieFournisseur(f.getCategorieFournisseur());
+				return fournisseurRepository.save(existant);
+			}
+		}
 		DetailFournisseur df = saveDetailFournisseur(f);
 		f.setDetailFournisseur(df);	
 		fournisseurRepository.save(f);
@@ -68,7 +91,7 @@ public class FournisseurServiceImpl implements IFournisseurService {
 	@Override
 	public Fournisseur retrieveFournisseur(Long fournisseurId) {
 
-		Fournisseur fournisseur = fournisseurRepository.findById(fournisseurId).orElse(null);
+		Fournisseur fournisseur = fournisseurRepository.findDetailByIdFournisseur(fournisseurId).orElse(null);
 		return fournisseur;
 	}
 
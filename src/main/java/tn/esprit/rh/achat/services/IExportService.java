@@ -0,0 +1,15 @@
+package tn.esprit.rh.achat.services;
+
+import tn.esprit.rh.achat.util.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+public interface IExportService {
+
+	void exportFactures(Date startDate, Date endDate, Long idFournisseur, ExportFormat format, OutputStream out) throws IOException;
+
+	void exportReglements(Date startDate, Date endDate, Long idFournisseur, ExportFormat format, OutputStream out) throws IOException;
+
+}
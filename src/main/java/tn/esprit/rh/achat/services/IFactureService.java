@@ -1,23 +1,43 @@
 package tn.esprit.rh.achat.services;
 
+import tn.esprit.rh.achat.dto.FactureDTO;
 import tn.esprit.rh.achat.entities.Facture;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 public interface IFactureService {
-	List<Facture> retrieveAllFactures();
+	List<FactureDTO> retrieveAllFactures();
 
-	List<Facture> getFacturesByFournisseur(Long idFournisseur);
+	List<FactureDTO> retrieveFacturesPage(Long afterId, int limit, Date startDate, Date endDate);
+
+	List<FactureDTO> getFacturesByFournisseur(Long idFournisseur, boolean archivee, Date startDate, Date endDate,
+			Date afterDate, Long afterId, int limit);
 
 	Facture addFacture(Facture f);
 
+	List<Facture> addFactures(List<Facture> factures);
+
 	void cancelFacture(Long id);
 
+	int cancelFactures(Collection<Long> ids);
+
+	int cancelFacturesByFournisseur(Long idFournisseur, Date startDate, Date endDate);
+
 	Facture retrieveFacture(Long id);
+
+	FactureDTO retrieveFactureArchivee(Long id);
+
+	List<FactureDTO> getFacturesArchiveesByFournisseur(Long idFournisseur, Date startDate, Date endDate,
+			Date afterDate, Long afterId, int limit);
+
+	int archiverFactures();
 	
 	void assignOperateurToFacture(Long idOperateur, Long idFacture);
 
 	float pourcentageRecouvrement(Date startDate, Date endDate);
 
+	int rebuildRecouvrement();
+
 }
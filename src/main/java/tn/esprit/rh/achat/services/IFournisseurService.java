@@ -1,12 +1,15 @@
 package tn.esprit.rh.achat.services;
 
+import tn.esprit.rh.achat.dto.FournisseurDTO;
 import tn.esprit.rh.achat.entities.Fournisseur;
 
 import java.util.List;
 
 public interface IFournisseurService {
 
-	List<Fournisseur> retrieveAllFournisseurs();
+	List<FournisseurDTO> retrieveAllFournisseurs();
+
+	List<FournisseurDTO> retrieveFournisseursPage(Long afterId, int limit);
 
 	Fournisseur addFournisseur(Fournisseur f);
 
@@ -1,12 +1,16 @@
 package tn.esprit.rh.achat.services;
 
+import tn.esprit.rh.achat.dto.ProduitDTO;
 import tn.esprit.rh.achat.entities.Produit;
 
+import java.util.Date;
 import java.util.List;
 
 public interface IProduitService {
 
-	List<Produit> retrieveAllProduits();
+	List<ProduitDTO> retrieveAllProduits();
+
+	List<ProduitDTO> retrieveProduitsPage(Long afterId, int limit, Date startDate, Date endDate);
 
 	Produit addProduit(Produit p);
 
@@ -16,6 +20,8 @@ public interface IProduitService {
 
 	Produit retrieveProduit(Long id);
 
+	ProduitPrix retrieveProduitPrix(Long id);
+
 	void assignProduitToStock(Long idProduit, Long idStock);
 
 }
@@ -1,5 +1,6 @@
 package tn.esprit.rh.achat.services;
 
+import tn.esprit.rh.achat.dto.ReglementDTO;
 import tn.esprit.rh.achat.entities.Reglement;
 
 import java.util.Date;
@@ -7,10 +8,12 @@ import java.util.List;
 
 public interface IReglementService {
 
-	List<Reglement> retrieveAllReglements();
+	List<ReglementDTO> retrieveAllReglements();
+	List<ReglementDTO> retrieveReglementsPage(Long afterId, int limit, Date startDate, Date endDate);
 	Reglement addReglement(Reglement r);
 	Reglement retrieveReglement(Long id);
-	List<Reglement> retrieveReglementByFacture(Long idFacture);
-	float getChiffreAffaireEntreDeuxDate(Date startDate, Date endDate); 
+	List<ReglementDTO> retrieveReglementByFacture(Long idFacture);
+	List<ReglementDTO> retrieveReglementByFacture(Long idFacture, boolean includeArchive);
+	double getChiffreAffaireEntreDeuxDate(Date startDate, Date endDate); 
 
 }
@@ -1,12 +1,16 @@
 package tn.esprit.rh.achat.services;
 
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
 import tn.esprit.rh.achat.entities.Stock;
 
 import java.util.List;
 
 public interface IStockService {
 
-	List<Stock> retrieveAllStocks();
+	List<StockDTO> retrieveAllStocks();
+
+	List<StockDTO> retrieveStocksPage(Long afterId, int limit);
 
 	Stock addStock(Stock s);
 
@@ -16,5 +20,9 @@ public interface IStockService {
 
 	Stock retrieveStock(Long id);
 
+	List<StockDTO> retrieveStocksEnRouge();
+
+	List<ReorderSuggestionDTO> retrieveReorderSuggestions();
+
 	String retrieveStatusStock();
 }
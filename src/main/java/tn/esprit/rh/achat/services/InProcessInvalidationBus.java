@@ -0,0 +1,19 @@
+package tn.esprit.rh.achat.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bus limité à la JVM courante : pour les tests et les déploiements à une seule instance.
+ */
+@Component
+@ConditionalOnProperty(name = "achat.invalidation.bus", havingValue = "in-process")
+public class InProcessInvalidationBus extends AbstractInvalidationBus {
+
+	@Override
+	public void publish(Class<?> entityClass, Long id) {
+		if (id != null) {
+			deliverAfterCommit(entityClass.getSimpleName(), id);
+		}
+	}
+}
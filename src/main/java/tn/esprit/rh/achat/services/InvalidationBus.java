@@ -0,0 +1,20 @@
+package tn.esprit.rh.achat.services;
+
+import java.util.function.Consumer;
+
+/**
+ * Diffusion des invalidations de cache entre réplicas : les services publient
+ * l'identifiant de l'entité modifiée ou supprimée, les caches locaux s'abonnent
+ * par type d'entité. La publication est délivrée après commit de la transaction
+ * en cours, aux abonnés locaux comme à ceux des autres réplicas.
+ *
+ * Implémentations : DatabaseInvalidationBus (journal en base, par défaut) et
+ * InProcessInvalidationBus (une seule JVM, pour les tests), choisies par
+ * achat.invalidation.bus=database|in-process.
+ */
+public interface InvalidationBus {
+
+	void publish(Class<?> entityClass, Long id);
+
+	void subscribe(Class<?> entityClass, Consumer<Long> listener);
+}
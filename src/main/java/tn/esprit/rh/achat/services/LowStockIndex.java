@@ -0,0 +1,104 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.StockRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Index en mémoire des stocks "en rouge" (qte < qteMin).
+ * Chargé une seule fois au démarrage puis tenu à jour par StockServiceImpl
+ * (ajout / modification / suppression) : la liste des stocks en rouge ne
+ * nécessite plus de parcourir toute la table.
+ */
+@Component
+@Slf4j
+public class LowStockIndex {
+
+	public enum Transition {
+		/** le stock vient de passer sous sa quantité minimale */
+		ENTREE_EN_ROUGE,
+		/** le stock vient de repasser au-dessus de sa quantité minimale */
+		SORTIE_DU_ROUGE,
+		/** pas de changement d'état */
+		AUCUNE
+	}
+
+	private final Map<Long, StockDTO> stocksEnRouge = new ConcurrentHashMap<>();
+
+	@Autowired
+	StockRepository stockRepository;
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@PostConstruct
+	void registerGauge() {
+		Gauge.builder("achat.stock.rouge", stocksEnRouge, Map::size)
+				.description("Nombre de stocks dont la quantité est inférieure à la quantité minimale")
+				.register(meterRegistry);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		stocksEnRouge.clear();
+		for (Stock stock : stockRepository.retrieveStatusStock()) {
+			stocksEnRouge.put(stock.getIdStock(), snapshot(stock));
+		}
+		log.info("Index des stocks en rouge chargé : {} stocks", stocksEnRouge.size());
+	}
+
+	public static boolean isEnRouge(Stock stock) {
+		return stock.getQte() != null && stock.getQteMin() != null && stock.getQte() < stock.getQteMin();
+	}
+
+	/** Met à jour l'état du stock dans l'index et indique s'il a franchi le seuil. */
+	public Transition update(Stock stock) {
+		boolean enRouge = isEnRouge(stock);
+		StockDTO previous = enRouge
+				? stocksEnRouge.put(stock.getIdStock(), snapshot(stock))
+				: stocksEnRouge.remove(stock.getIdStock());
+		boolean etaitEnRouge = previous != null;
+		if (enRouge && !etaitEnRouge) {
+			return Transition.ENTREE_EN_ROUGE;
+		}
+		if (!enRouge && etaitEnRouge) {
+			return Transition.SORTIE_DU_ROUGE;
+		}
+		return Transition.AUCUNE;
+	}
+
+	public void remove(Long idStock) {
+		stocksEnRouge.remove(idStock);
+	}
+
+	public int size() {
+		return stocksEnRouge.size();
+	}
+
+	/** Copie des stocks en rouge, triés par identifiant. */
+	public List<StockDTO> getStocksEnRouge() {
+		List<StockDTO> stocks = new ArrayList<>(stocksEnRouge.size());
+		for (StockDTO stock : stocksEnRouge.values()) {
+			stocks.add(new StockDTO(stock.getIdStock(), stock.getLibelleStock(), stock.getQte(), stock.getQteMin()));
+		}
+		stocks.sort(Comparator.comparing(StockDTO::getIdStock));
+		return stocks;
+	}
+
+	private static StockDTO snapshot(Stock stock) {
+		return new StockDTO(stock.getIdStock(), stock.getLibelleStock(), stock.getQte(), stock.getQteMin());
+	}
+}
@@ -12,6 +12,8 @@ public class OperateurServiceImpl implements IOperateurService {
 
 	@Autowired
 	OperateurRepository operateurRepository;
+	@Autowired
+	InvalidationBus invalidationBus;
 	@Override
 	public List<Operateur> retrieveAllOperateurs() {
 		return (List<Operateur>) operateurRepository.findAll();
@@ -20,18 +22,21 @@ public class OperateurServiceImpl implements IOperateurService {
 	@Override
 	public Operateur addOperateur(Operateur o) {
 		operateurRepository.save(o);
+		invalidationBus.publish(Operateur.class, o.getIdOperateur());
 		return o;
 	}
 
 	@Override
 	public void deleteOperateur(Long id) {
 		operateurRepository.deleteById(id);
+		invalidationBus.publish(Operateur.class, id);
 		
 	}
 
 	@Override
 	public Operateur updateOperateur(Operateur o) {
 		operateurRepository.save(o);
+		invalidationBus.publish(Operateur.class, o.getIdOperateur());
 		return o;
 	}
 
@@ -0,0 +1,28 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tn.esprit.rh.achat.entities.Produit;
+
+import java.util.Date;
+
+/**
+ * Données d'un produit nécessaires à la tarification et à la consultation, copiées
+ * de l'entité pour être gardées en cache (voir ProduitPrixCache)
+ */
+@Getter
+@AllArgsConstructor
+public class ProduitPrix {
+	private final Long idProduit;
+	private final String codeProduit;
+	private final String libelleProduit;
+	/** en millimes */
+	private final long prix;
+	private final Date dateCreation;
+	private final Date dateDerniereModification;
+
+	public static ProduitPrix of(Produit produit) {
+		return new ProduitPrix(produit.getIdProduit(), produit.getCodeProduit(), produit.getLibelleProduit(),
+				produit.getPrix(), produit.getDateCreation(), produit.getDateDerniereModification());
+	}
+}
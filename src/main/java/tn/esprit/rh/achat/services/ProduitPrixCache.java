@@ -0,0 +1,93 @@
+package tn.esprit.rh.achat.services;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.repositories.ProduitRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Cache borné (taille + durée de vie) des prix et libellés produits, partagé par
+ * la tarification des factures et /produit/retrieve-produit. Une facture est
+ * tarifée avec un seul getAll : les produits absents du cache sont chargés en une
+ * seule requête (findAllById). Invalidé sur tous les réplicas, via l'InvalidationBus,
+ * à la modification et à la suppression d'un produit.
+ */
+@Component
+@Slf4j
+public class ProduitPrixCache {
+
+	@Autowired
+	ProduitRepository produitRepository;
+	@Autowired
+	MeterRegistry meterRegistry;
+	@Autowired
+	InvalidationBus invalidationBus;
+
+	@Value("${achat.produit-cache.maximum-size:10000}")
+	long maximumSize;
+	@Value("${achat.produit-cache.expire-after-write:5m}")
+	Duration expireAfterWrite;
+
+	private LoadingCache<Long, ProduitPrix> cache;
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(expireAfterWrite)
+				.recordStats()
+				.build(new CacheLoader<Long, ProduitPrix>() {
+					@Override
+					public ProduitPrix load(Long idProduit) {
+						return produitRepository.findById(idProduit).map(ProduitPrix::of).orElse(null);
+					}
+
+					@Override
+					public Map<Long, ProduitPrix> loadAll(Iterable<? extends Long> idsProduits) {
+						List<Long> ids = new ArrayList<>();
+						idsProduits.forEach(ids::add);
+						Map<Long, ProduitPrix> produits = new HashMap<>();
+						for (Produit produit : produitRepository.findAllById(ids)) {
+							produits.put(produit.getIdProduit(), ProduitPrix.of(produit));
+						}
+						return produits;
+					}
+				});
+		// cache.gets{result=hit|miss}, cache.evictions, cache.size... (tag cache=produitPrix)
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "produitPrix");
+		invalidationBus.subscribe(Produit.class, this::invalidate);
+	}
+
+	/** @return null si le produit n'existe pas (l'absence n'est pas mise en cache) */
+	public ProduitPrix get(Long idProduit) {
+		return cache.get(idProduit);
+	}
+
+	/** Les identifiants inconnus sont absents du résultat. */
+	public Map<Long, ProduitPrix> getAll(Collection<Long> idsProduits) {
+		return cache.getAll(idsProduits);
+	}
+
+	public void invalidate(Long idProduit) {
+		cache.invalidate(idProduit);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+}
@@ -2,14 +2,18 @@ package tn.esprit.rh.achat.services;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.ProduitDTO;
 import tn.esprit.rh.achat.entities.Produit;
 import tn.esprit.rh.achat.entities.Stock;
 import tn.esprit.rh.achat.repositories.CategorieProduitRepository;
 import tn.esprit.rh.achat.repositories.ProduitRepository;
 import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.util.LogSampler;
 
-import javax.transaction.Transactional;
+import java.util.Date;
 import java.util.List;
 
 @Service
@@ -22,16 +26,28 @@ public class ProduitServiceImpl implements IProduitService {
 	StockRepository stockRepository;
 	@Autowired
 	CategorieProduitRepository categorieProduitRepository;
+	@Autowired
+	ProduitPrixCache produitPrixCache;
+	@Autowired
+	InvalidationBus invalidationBus;
+	@Autowired
+	LogSampler logSampler;
 
 	@Override
-	public List<Produit> retrieveAllProduits() {
-		List<Produit> produits = (List<Produit>) produitRepository.findAll();
-		for (Produit produit : produits) {
-			log.info(" Produit : " + produit);
-		}
+	@Transactional(readOnly = true)
+	public List<ProduitDTO> retrieveAllProduits() {
+		List<ProduitDTO> produits = produitRepository.findAllDTO();
+		logSampler.echantillonner(log, produits, p -> log.debug("Produit {} {} : prix {}", p.getIdProduit(),
+				p.getCodeProduit(), p.getPrix()));
 		return produits;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<ProduitDTO> retrieveProduitsPage(Long afterId, int limit, Date startDate, Date endDate) {
+		return produitRepository.findDTOPage(afterId, startDate, endDate, PageRequest.of(0, limit));
+	}
+
 	@Transactional
 	public Produit addProduit(Produit p) {
 		produitRepository.save(p);
@@ -43,20 +59,30 @@ public class ProduitServiceImpl implements IProduitService {
 	@Override
 	public void deleteProduit(Long produitId) {
 		produitRepository.deleteById(produitId);
+		invalidationBus.publish(Produit.class, produitId);
 	}
 
 	@Override
 	public Produit updateProduit(Produit p) {
-		return produitRepository.save(p);
+		Produit produit = produitRepository.save(p);
+		invalidationBus.publish(Produit.class, produit.getIdProduit());
+		return produit;
 	}
 
 	@Override
 	public Produit retrieveProduit(Long produitId) {
 		Produit produit = produitRepository.findById(produitId).orElse(null);
-		log.info("produit :" + produit);
+		if (logSampler.echantillon(log)) {
+			log.debug("Produit {} {}", produitId, produit != null ? "trouvé" : "introuvable");
+		}
 		return produit;
 	}
 
+	@Override
+	public ProduitPrix retrieveProduitPrix(Long produitId) {
+		return produitPrixCache.get(produitId);
+	}
+
 	@Override
 	public void assignProduitToStock(Long idProduit, Long idStock) {
 		Produit produit = produitRepository.findById(idProduit).orElse(null);
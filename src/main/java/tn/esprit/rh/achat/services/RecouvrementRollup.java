@@ -0,0 +1,184 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.RecouvrementJournalier;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.RecouvrementJournalierRepository;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.DateUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Tient à jour la table recouvrement_journalier (montants facturés et payés par
+ * jour et par fournisseur, factures non archivées uniquement) afin que
+ * pourcentageRecouvrement et getChiffreAffaireEntreDeuxDate somment quelques
+ * centaines de lignes pré-agrégées au lieu de parcourir factures et règlements.
+ *
+ * Les montants payés sont rattachés au jour du règlement et au fournisseur de la
+ * facture réglée, ce qui reproduit exactement les anciennes requêtes SUM.
+ */
+@Component
+@Slf4j
+public class RecouvrementRollup {
+
+	@Autowired
+	RecouvrementJournalierRepository recouvrementRepository;
+	@Autowired
+	FactureRepository factureRepository;
+	@Autowired
+	ReglementRepository reglementRepository;
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Transactional
+	public void factureAjoutee(Facture f) {
+		if (Boolean.FALSE.equals(f.getArchivee()) && f.getDateCreationFacture() != null) {
+			increment(f.getDateCreationFacture(), idFournisseurOf(f), f.getMontantFacture(), 0);
+		}
+	}
+
+	/*
+	 * La facture et ses règlements sortent des totaux au moment de l'archivage ;
+	 * les règlements sont cumulés par jour avant écriture, une facture réglée en
+	 * plusieurs fois le même jour ne coûte qu'une mise à jour. Même condition que
+	 * factureAjoutee : une facture déjà archivée ou sans état n'a jamais été comptée
+	 */
+	@Transactional
+	public void factureArchivee(Facture f, List<Reglement> reglements) {
+		if (!Boolean.FALSE.equals(f.getArchivee())) {
+			return;
+		}
+		if (f.getDateCreationFacture() != null) {
+			increment(f.getDateCreationFacture(), idFournisseurOf(f), -f.getMontantFacture(), 0);
+		}
+		Map<LocalDate, Long> payeParJour = new LinkedHashMap<>();
+		for (Reglement r : reglements) {
+			if (r.getDateReglement() != null) {
+				payeParJour.merge(DateUtils.toLocalDate(r.getDateReglement()), r.getMontantPaye(), Long::sum);
+			}
+		}
+		payeParJour.forEach((jour, montantPaye) -> increment(jour, idFournisseurOf(f), 0, -montantPaye));
+	}
+
+	/*
+	 * Annulation en masse : montants déjà sommés par (jour, fournisseur) pour le lot,
+	 * une mise à jour par couple quel que soit le nombre de factures
+	 */
+	@Transactional
+	public void facturesArchivees(List<Object[]> factures, List<Object[]> reglements) {
+		Map<String, RecouvrementJournalier> deltas = new LinkedHashMap<>();
+		for (Object[] row : factures) {
+			RecouvrementJournalier delta = ligne(deltas, row);
+			delta.setMontantFacture(delta.getMontantFacture() - ((Number) row[2]).longValue());
+		}
+		for (Object[] row : reglements) {
+			RecouvrementJournalier delta = ligne(deltas, row);
+			delta.setMontantPaye(delta.getMontantPaye() - ((Number) row[2]).longValue());
+		}
+		for (RecouvrementJournalier delta : deltas.values()) {
+			increment(delta.getJour(), delta.getIdFournisseur(), delta.getMontantFacture(), delta.getMontantPaye());
+		}
+	}
+
+	@Transactional
+	public void reglementAjoute(Reglement r, Facture f) {
+		if (f != null && Boolean.FALSE.equals(f.getArchivee()) && r.getDateReglement() != null) {
+			increment(r.getDateReglement(), idFournisseurOf(f), 0, r.getMontantPaye());
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public long getTotalFacturesEntreDeuxDates(Date startDate, Date endDate) {
+		return recouvrementRepository.getTotalFacturesEntreDeuxDates(
+				DateUtils.toLocalDate(startDate), DateUtils.toLocalDate(endDate));
+	}
+
+	@Transactional(readOnly = true)
+	public long getTotalPayeEntreDeuxDates(Date startDate, Date endDate) {
+		return recouvrementRepository.getTotalPayeEntreDeuxDates(
+				DateUtils.toLocalDate(startDate), DateUtils.toLocalDate(endDate));
+	}
+
+	/*
+	 * Reconstruction complète à partir des factures et règlements (reprise de
+	 * l'existant, correction d'une dérive). Désactivée par défaut : à planifier
+	 * sur une seule instance via achat.recouvrement.rebuild-cron, ou à lancer par
+	 * POST /facture/recouvrement/rebuild.
+	 *
+	 * La suppression passe avant la lecture des sommes : elle verrouille toute la
+	 * table (lignes et intervalles, REPEATABLE READ) jusqu'au commit. Une écriture
+	 * commitée avant est dans les sommes ; une écriture en cours attend la fin de la
+	 * reconstruction et s'ajoute aux nouvelles lignes. Aucun incrément n'est perdu.
+	 */
+	@Scheduled(cron = "${achat.recouvrement.rebuild-cron:-}")
+	@Transactional
+	public int rebuild() {
+		recouvrementRepository.deleteAllInBatch();
+		Map<String, RecouvrementJournalier> lignes = new LinkedHashMap<>();
+		for (Object[] row : factureRepository.sumFacturesParJourEtFournisseur()) {
+			ligne(lignes, row).setMontantFacture(((Number) row[2]).longValue());
+		}
+		for (Object[] row : reglementRepository.sumReglementsParJourEtFournisseur()) {
+			ligne(lignes, row).setMontantPaye(((Number) row[2]).longValue());
+		}
+		recouvrementRepository.saveAll(lignes.values());
+		log.info("Agrégats de recouvrement reconstruits : {} lignes", lignes.size());
+		return lignes.size();
+	}
+
+	private static RecouvrementJournalier ligne(Map<String, RecouvrementJournalier> lignes, Object[] row) {
+		LocalDate jour = DateUtils.toLocalDate((Date) row[0]);
+		Long idFournisseur = row[1] != null ? (Long) row[1] : RecouvrementJournalier.SANS_FOURNISSEUR;
+		return lignes.computeIfAbsent(jour + "/" + idFournisseur,
+				k -> new RecouvrementJournalier(null, jour, idFournisseur, 0, 0));
+	}
+
+	private void increment(Date date, Long idFournisseur, long montantFacture, long montantPaye) {
+		increment(DateUtils.toLocalDate(date), idFournisseur, montantFacture, montantPaye);
+	}
+
+	/*
+	 * Insertion ou mise à jour en une instruction, dans la transaction appelante : pas
+	 * d'UPDATE préalable, dont le verrou d'intervalle sur une ligne absente bloquerait
+	 * l'insertion concurrente du même (jour, fournisseur). L'identifiant est pris au
+	 * générateur de l'entité et reste inutilisé si la ligne existe déjà.
+	 */
+	private void increment(LocalDate jour, Long idFournisseur, long montantFacture, long montantPaye) {
+		entityManager.createNativeQuery(RecouvrementJournalierRepository.CREER_OU_INCREMENTER)
+				.setParameter("id", nouvelId())
+				.setParameter("jour", jour)
+				.setParameter("idFournisseur", idFournisseur)
+				.setParameter("montantFacture", montantFacture)
+				.setParameter("montantPaye", montantPaye)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedEntityClass(RecouvrementJournalier.class)
+				.executeUpdate();
+	}
+
+	private Long nouvelId() {
+		SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+		return (Long) session.getFactory().getMetamodel().entityPersister(RecouvrementJournalier.class)
+				.getIdentifierGenerator().generate(session, null);
+	}
+
+	private static Long idFournisseurOf(Facture f) {
+		return f.getFournisseur() != null && f.getFournisseur().getIdFournisseur() != null
+				? f.getFournisseur().getIdFournisseur()
+				: RecouvrementJournalier.SANS_FOURNISSEUR;
+	}
+}
@@ -0,0 +1,48 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tn.esprit.rh.achat.entities.CategorieProduit;
+import tn.esprit.rh.achat.entities.Operateur;
+import tn.esprit.rh.achat.entities.SecteurActivite;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+
+/*
+ * Éviction explicite du cache de second niveau des données de référence
+ * (CategorieProduit, SecteurActivite, Operateur) sur réception d'une invalidation
+ * publiée par les services sur l'InvalidationBus, quel que soit le réplica
+ * d'origine. Hibernate ne met à jour que les régions de l'instance qui écrit ;
+ * l'éviction couvre les autres réplicas, et les résultats de findAll. Les
+ * collections (produits, fournisseurs, factures) ne sont pas en cache.
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache {
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	@Autowired
+	InvalidationBus invalidationBus;
+
+	@PostConstruct
+	void subscribe() {
+		invalidationBus.subscribe(CategorieProduit.class, id -> evict(CategorieProduit.class, id));
+		invalidationBus.subscribe(SecteurActivite.class, id -> evict(SecteurActivite.class, id));
+		invalidationBus.subscribe(Operateur.class, id -> evict(Operateur.class, id));
+	}
+
+	public void evict(Class<?> entityClass, Serializable id) {
+		Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		if (id != null) {
+			cache.evictEntityData(entityClass, id);
+		}
+		cache.evictDefaultQueryRegion();
+		log.debug("Cache de second niveau évincé : {} #{}", entityClass.getSimpleName(), id);
+	}
+}
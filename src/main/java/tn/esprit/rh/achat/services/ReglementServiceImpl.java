@@ -1,11 +1,18 @@
 package tn.esprit.rh.achat.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.ReglementDTO;
+import tn.esprit.rh.achat.entities.Facture;
 import tn.esprit.rh.achat.entities.Reglement;
 import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.ReglementArchiveRepository;
 import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.Money;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -16,14 +23,39 @@ public class ReglementServiceImpl implements IReglementService {
 	FactureRepository factureRepository;
 	@Autowired
 	ReglementRepository reglementRepository;
+	@Autowired
+	RecouvrementRollup recouvrementRollup;
+	@Autowired(required = false)
+	RevenueIndex revenueIndex;
+	@Autowired
+	InvalidationBus invalidationBus;
+	@Autowired
+	ReglementArchiveRepository reglementArchiveRepository;
 	@Override
-	public List<Reglement> retrieveAllReglements() {
-		return (List<Reglement>) reglementRepository.findAll();
+	@Transactional(readOnly = true)
+	public List<ReglementDTO> retrieveAllReglements() {
+		return reglementRepository.findAllDTO();
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public List<ReglementDTO> retrieveReglementsPage(Long afterId, int limit, Date startDate, Date endDate) {
+		return reglementRepository.findDTOPage(afterId, startDate, endDate, PageRequest.of(0, limit));
+	}
+
+	@Override
+	@Transactional
 	public Reglement addReglement(Reglement r) {
         reglementRepository.save(r);
+		Facture facture = r.getFacture() != null && r.getFacture().getIdFacture() != null
+				? factureRepository.findById(r.getFacture().getIdFacture()).orElse(null)
+				: null;
+		recouvrementRollup.reglementAjoute(r, facture);
+		if (revenueIndex != null) {
+			revenueIndex.reglementAjoute(r, facture);
+		}
+		// index du chiffre d'affaires des autres réplicas
+		invalidationBus.publish(Reglement.class, r.getIdReglement());
 		return r;
 	}
 
@@ -35,18 +67,39 @@ public class ReglementServiceImpl implements IReglementService {
 	}
 
 	@Override
-	public List<Reglement> retrieveReglementByFacture(Long idFacture) {
-		List<Reglement> reglements= reglementRepository.retrieveReglementByFacture(idFacture);
-		return reglements;
+	@Transactional(readOnly = true)
+	public List<ReglementDTO> retrieveReglementByFacture(Long idFacture) {
+		return reglementRepository.findDTOByFacture(idFacture);
 		
 //		ou bien(Sans JPQL)
 //		Facture f= factureRepository.findById(idFacture).get();
 //		return (List<Reglement>) f.getReglements();
 	}
 
+	/** règlements d'une facture, y compris ceux déplacés vers reglement_archive (FactureArchiver) */
 	@Override
-	public float getChiffreAffaireEntreDeuxDate(Date startDate, Date endDate) {
-		return reglementRepository.getChiffreAffaireEntreDeuxDate( startDate, endDate);
+	@Transactional(readOnly = true)
+	public List<ReglementDTO> retrieveReglementByFacture(Long idFacture, boolean includeArchive) {
+		List<ReglementDTO> reglements = new ArrayList<>(reglementRepository.findDTOByFacture(idFacture));
+		if (includeArchive) {
+			reglements.addAll(reglementArchiveRepository.findDTOByFacture(idFacture));
+		}
+		return reglements;
+	}
+
+	@Override
+	public double getChiffreAffaireEntreDeuxDate(Date startDate, Date endDate) {
+		return Money.toDouble(getTotalPayeEntreDeuxDates(startDate, endDate));
+	}
+
+	/*
+	 * Total payé en millimes
+	 */
+	long getTotalPayeEntreDeuxDates(Date startDate, Date endDate) {
+		if (revenueIndex != null && revenueIndex.couvre(startDate)) {
+			return revenueIndex.getChiffreAffaireEntreDeuxDate(startDate, endDate);
+		}
+		return recouvrementRollup.getTotalPayeEntreDeuxDates(startDate, endDate);
 	}
 
 }
@@ -0,0 +1,110 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.repositories.DetailFactureRepository;
+import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.util.RunningStats;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * Suggestions de quantité minimale et de réapprovisionnement par stock, à partir des
+ * quantités commandées (lignes de factures actives) sur une fenêtre glissante.
+ *
+ * La base somme les lignes par (stock, jour) ; les lignes arrivent triées par stock et
+ * sont fusionnées avec la liste de tous les stocks, triée de même : chaque stock est
+ * résumé en une passe (moyenne et écart type journaliers, voir RunningStats), les jours
+ * sans commande étant ajoutés en bloc. Un stock sans ligne sur la fenêtre figure avec une
+ * consommation nulle. Seuls les stocks (projection) et les résultats sont en mémoire.
+ *
+ * qteMin suggérée = demande pendant le délai de réapprovisionnement + stock de sécurité
+ *                 = moyenne * délai + z * écart type * racine(délai)
+ * qte à commander = qteMin suggérée + demande d'un cycle - qte actuelle (si positive)
+ *
+ * Recalculé sur chaque instance (achat.reorder.cron), ou au premier appel de
+ * GET /stock/reorder-suggestions (un seul calcul pour les appels concurrents, voir
+ * StockServiceImpl).
+ */
+@Component
+@Slf4j
+public class ReorderSuggestions {
+
+	@Autowired
+	DetailFactureRepository detailFactureRepository;
+	@Autowired
+	StockRepository stockRepository;
+
+	@Value("${achat.reorder.window-days:365}")
+	int fenetreJours;
+	@Value("${achat.reorder.lead-time-days:7}")
+	int delaiJours;
+	@Value("${achat.reorder.cycle-days:30}")
+	int cycleJours;
+	@Value("${achat.reorder.service-z:1.65}")
+	double z;
+
+	private volatile List<ReorderSuggestionDTO> dernieres;
+
+	/** derniers résultats calculés, null avant le premier calcul */
+	public List<ReorderSuggestionDTO> getDernieres() {
+		return dernieres;
+	}
+
+	@Scheduled(cron = "${achat.reorder.cron:-}")
+	@Transactional(readOnly = true)
+	public List<ReorderSuggestionDTO> calculer() {
+		long debut = System.nanoTime();
+		LocalDate fin = LocalDate.now();
+		LocalDate premierJour = fin.minusDays(fenetreJours - 1L);
+		List<StockDTO> stocks = new ArrayList<>(stockRepository.findAllDTO());
+		stocks.sort(Comparator.comparing(StockDTO::getIdStock));
+		List<ReorderSuggestionDTO> resultats = new ArrayList<>(stocks.size());
+		try (Stream<Object[]> lignes = detailFactureRepository.streamConsommationParStockEtJour(
+				Date.valueOf(premierJour), Date.valueOf(fin))) {
+			Iterator<Object[]> it = lignes.iterator();
+			Object[] ligne = it.hasNext() ? it.next() : null;
+			for (StockDTO stock : stocks) {
+				// lignes d'un stock créé après la lecture de la liste : ignorées
+				while (ligne != null && (Long) ligne[0] < stock.getIdStock()) {
+					ligne = it.hasNext() ? it.next() : null;
+				}
+				RunningStats stats = new RunningStats();
+				while (ligne != null && stock.getIdStock().equals(ligne[0])) {
+					stats.add(((Number) ligne[5]).doubleValue());
+					ligne = it.hasNext() ? it.next() : null;
+				}
+				resultats.add(suggestion(stock, stats));
+			}
+		}
+		dernieres = Collections.unmodifiableList(resultats);
+		log.info("Suggestions de réapprovisionnement calculées : {} stocks sur {} jours en {} ms",
+				resultats.size(), fenetreJours, (System.nanoTime() - debut) / 1_000_000);
+		return dernieres;
+	}
+
+	private ReorderSuggestionDTO suggestion(StockDTO stock, RunningStats stats) {
+		stats.addZeros(fenetreJours - stats.getCount());
+		double moyenne = stats.getMean();
+		double ecartType = stats.getStandardDeviation();
+		int qteMinSuggeree = (int) Math.ceil(moyenne * delaiJours + z * ecartType * Math.sqrt(delaiJours));
+		Integer qte = stock.getQte();
+		int qteACommander = (int) Math.max(0,
+				Math.ceil(qteMinSuggeree + moyenne * cycleJours - (qte != null ? qte : 0)));
+		return new ReorderSuggestionDTO(stock.getIdStock(), stock.getLibelleStock(), qte, stock.getQteMin(),
+				moyenne, ecartType, qteMinSuggeree, qteACommander);
+	}
+}
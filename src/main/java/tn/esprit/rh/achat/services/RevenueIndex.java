@@ -0,0 +1,266 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.DateUtils;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Index en mémoire du chiffre d'affaires (somme des règlements de factures non
+ * archivées) par jour : arbre de Fenwick sur des tableaux primitifs, une case par
+ * jour depuis la date d'origine. Une somme sur un intervalle quelconque coûte
+ * O(log n) sans requête SQL.
+ *
+ * Activé par instance avec achat.revenue-index.enabled=true. Chargé avant que
+ * l'application ne passe "ready", puis mis à jour après commit par
+ * ReglementServiceImpl (ajout) et FactureServiceImpl (archivage).
+ *
+ * Les modifications faites sur les autres réplicas arrivent par l'InvalidationBus
+ * (Reglement, Facture) : l'index est alors marqué à recharger et rechargé depuis la
+ * base toutes les achat.revenue-index.refresh-interval au plus. Les notifications des
+ * modifications déjà appliquées ici sont ignorées.
+ */
+@Component
+@ConditionalOnProperty(prefix = "achat.revenue-index", name = "enabled", havingValue = "true")
+@Slf4j
+public class RevenueIndex {
+
+	private static final int CAPACITE_INITIALE = 1024;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final AtomicBoolean aRecharger = new AtomicBoolean();
+	/** modifications appliquées par ce réplica, dont la notification locale est attendue */
+	private final Set<String> appliquees = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	ReglementRepository reglementRepository;
+	@Autowired
+	InvalidationBus invalidationBus;
+
+	private LocalDate origine;
+	/** montant par jour (index 0 = origine) */
+	private long[] parJour = new long[0];
+	/** arbre de Fenwick, indexé à partir de 1 */
+	private long[] arbre = new long[1];
+
+	@PostConstruct
+	void subscribe() {
+		invalidationBus.subscribe(Reglement.class, id -> modifiee(Reglement.class, id));
+		invalidationBus.subscribe(Facture.class, id -> modifiee(Facture.class, id));
+	}
+
+	private void modifiee(Class<?> entityClass, Long id) {
+		if (!appliquees.remove(cle(entityClass, id))) {
+			aRecharger.set(true);
+		}
+	}
+
+	/** rechargement après une modification d'un autre réplica */
+	@Scheduled(fixedDelayString = "${achat.revenue-index.refresh-interval:5000}")
+	public void recharger() {
+		// remis à false avant la lecture : une modification commitée pendant le chargement
+		// provoque un nouveau rechargement
+		if (aRecharger.getAndSet(false)) {
+			load();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		List<Object[]> lignes = reglementRepository.sumReglementsParJour();
+		LocalDate premierJour = LocalDate.now().minusYears(1);
+		LocalDate dernierJour = LocalDate.now();
+		for (Object[] ligne : lignes) {
+			LocalDate jour = DateUtils.toLocalDate((Date) ligne[0]);
+			if (jour.isBefore(premierJour)) {
+				premierJour = jour;
+			}
+			if (jour.isAfter(dernierJour)) {
+				dernierJour = jour;
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			origine = premierJour;
+			parJour = new long[Math.max(CAPACITE_INITIALE, 2 * (indexOf(dernierJour) + 1))];
+			for (Object[] ligne : lignes) {
+				parJour[indexOf(DateUtils.toLocalDate((Date) ligne[0]))] += ((Number) ligne[1]).longValue();
+			}
+			construireArbre();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Index du chiffre d'affaires chargé : {} jours depuis le {}", lignes.size(), origine);
+	}
+
+	/**
+	 * @return false si l'index n'est pas chargé ou si l'intervalle commence avant
+	 *         l'origine (le calcul doit alors passer par la base)
+	 */
+	public boolean couvre(Date startDate) {
+		lock.readLock().lock();
+		try {
+			return origine != null && startDate != null && !DateUtils.toLocalDate(startDate).isBefore(origine);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Somme des règlements (en millimes) entre deux dates incluses ; l'intervalle doit être couvert
+	 * (voir {@link #couvre(Date)}).
+	 */
+	public long getChiffreAffaireEntreDeuxDate(Date startDate, Date endDate) {
+		LocalDate debut = DateUtils.toLocalDate(startDate);
+		LocalDate fin = DateUtils.toLocalDate(endDate);
+		lock.readLock().lock();
+		try {
+			if (origine == null || debut.isBefore(origine)) {
+				throw new IllegalStateException("Intervalle non couvert par l'index : " + debut);
+			}
+			if (fin.isBefore(debut)) {
+				return 0;
+			}
+			int i = indexOf(debut);
+			int j = Math.min(indexOf(fin), parJour.length - 1);
+			if (i > j) {
+				return 0;
+			}
+			return prefixe(j) - prefixe(i - 1);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void reglementAjoute(Reglement r, Facture f) {
+		appliquee(Reglement.class, r.getIdReglement());
+		if (f != null && Boolean.FALSE.equals(f.getArchivee()) && r.getDateReglement() != null) {
+			LocalDate jour = DateUtils.toLocalDate(r.getDateReglement());
+			long montant = r.getMontantPaye();
+			apresCommit(() -> ajouter(jour, montant));
+		}
+	}
+
+	public void factureArchivee(Long idFacture, List<Reglement> reglements) {
+		appliquee(Facture.class, idFacture);
+		for (Reglement r : reglements) {
+			if (r.getDateReglement() != null) {
+				LocalDate jour = DateUtils.toLocalDate(r.getDateReglement());
+				long montant = -r.getMontantPaye();
+				apresCommit(() -> ajouter(jour, montant));
+			}
+		}
+	}
+
+	/** règlements sommés par (jour, fournisseur) des factures d'un lot d'annulation */
+	public void facturesArchivees(List<Long> idFactures, List<Object[]> reglementsParJourEtFournisseur) {
+		for (Long idFacture : idFactures) {
+			appliquee(Facture.class, idFacture);
+		}
+		for (Object[] ligne : reglementsParJourEtFournisseur) {
+			LocalDate jour = DateUtils.toLocalDate((Date) ligne[0]);
+			long montant = -((Number) ligne[2]).longValue();
+			apresCommit(() -> ajouter(jour, montant));
+		}
+	}
+
+	void ajouter(LocalDate jour, long montant) {
+		lock.writeLock().lock();
+		try {
+			if (origine == null || jour.isBefore(origine)) {
+				// jamais interrogé : les intervalles antérieurs à l'origine passent par la base
+				return;
+			}
+			int index = indexOf(jour);
+			if (index >= parJour.length) {
+				agrandir(index + 1);
+			}
+			parJour[index] += montant;
+			for (int k = index + 1; k < arbre.length; k += k & -k) {
+				arbre[k] += montant;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * Enregistrée après commit, avant la notification locale du bus : les services
+	 * appellent l'index avant de publier, les synchronisations s'exécutent dans l'ordre
+	 */
+	private void appliquee(Class<?> entityClass, Long id) {
+		if (id != null) {
+			String cle = cle(entityClass, id);
+			apresCommit(() -> appliquees.add(cle));
+		}
+	}
+
+	private static String cle(Class<?> entityClass, Long id) {
+		return entityClass.getSimpleName() + "#" + id;
+	}
+
+	private static void apresCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private int indexOf(LocalDate jour) {
+		return (int) ChronoUnit.DAYS.between(origine, jour);
+	}
+
+	/** somme de parJour[0..index] */
+	private long prefixe(int index) {
+		long somme = 0;
+		for (int k = index + 1; k > 0; k -= k & -k) {
+			somme += arbre[k];
+		}
+		return somme;
+	}
+
+	private void agrandir(int taille) {
+		long[] copie = new long[Math.max(taille, parJour.length * 2)];
+		System.arraycopy(parJour, 0, copie, 0, parJour.length);
+		parJour = copie;
+		construireArbre();
+	}
+
+	/** construction en O(n) à partir des montants par jour */
+	private void construireArbre() {
+		arbre = new long[parJour.length + 1];
+		System.arraycopy(parJour, 0, arbre, 1, parJour.length);
+		for (int k = 1; k < arbre.length; k++) {
+			int parent = k + (k & -k);
+			if (parent < arbre.length) {
+				arbre[parent] += arbre[k];
+			}
+		}
+	}
+}
@@ -12,6 +12,8 @@ public class SecteurActiviteServiceImpl implements ISecteurActiviteService{
 
 	@Autowired
 	SecteurActiviteRepository secteurActiviteRepository;
+	@Autowired
+	InvalidationBus invalidationBus;
 	@Override
 	public List<SecteurActivite> retrieveAllSecteurActivite() {
 		return (List<SecteurActivite>) secteurActiviteRepository.findAll();
@@ -20,18 +22,21 @@ public class SecteurActiviteServiceImpl implements ISecteurActiviteService{
 	@Override
 	public SecteurActivite addSecteurActivite(SecteurActivite sa) {
 		secteurActiviteRepository.save(sa);
+		invalidationBus.publish(SecteurActivite.class, sa.getIdSecteurActivite());
 		return sa;
 	}
 
 	@Override
 	public void deleteSecteurActivite(Long id) {
 		secteurActiviteRepository.deleteById(id);
+		invalidationBus.publish(SecteurActivite.class, id);
 		
 	}
 
 	@Override
 	public SecteurActivite updateSecteurActivite(SecteurActivite sa) {
 		secteurActiviteRepository.save(sa);
+		invalidationBus.publish(SecteurActivite.class, sa.getIdSecteurActivite());
 		return sa;
 	}
 
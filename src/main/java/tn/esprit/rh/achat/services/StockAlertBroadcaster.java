@@ -0,0 +1,207 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Diffusion en Server-Sent Events des franchissements de seuil de stock.
+ * Chaque client a un tampon borné : la publication (chemin de mise à jour des stocks)
+ * ne fait qu'un offer() non bloquant, l'envoi réseau est fait par un pool dédié.
+ * Un client dont le tampon déborde (navigateur bloqué, réseau lent) est déconnecté, de
+ * même qu'un client dont un envoi dure plus de send-timeout-ms : une surveillance périodique
+ * interrompt le thread bloqué dans send(), pour que quelques clients figés n'occupent pas
+ * tout le pool d'envoi. Si l'écriture Tomcat ignore l'interruption, le thread est rendu à
+ * l'expiration d'écriture du connecteur ; les autres clients ne reçoivent plus rien d'ici là
+ * que si tous les threads sont pris.
+ * SseEmitter.complete() attend la fin d'un send() en cours (méthodes synchronized) : l'émetteur
+ * d'un client déconnecté est donc fermé par son thread d'envoi, jamais par le thread qui
+ * publie ni par la surveillance.
+ */
+@Component
+@Slf4j
+public class StockAlertBroadcaster {
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger threadCount = new AtomicInteger();
+	private ExecutorService senders;
+	private ScheduledExecutorService watchdog;
+	private Counter droppedSubscribers;
+
+	@Value("${achat.stock.alerts.buffer-size:64}")
+	int bufferSize;
+	@Value("${achat.stock.alerts.timeout-ms:1800000}")
+	long timeoutMs;
+	@Value("${achat.stock.alerts.sender-threads:8}")
+	int senderThreads;
+	@Value("${achat.stock.alerts.send-timeout-ms:5000}")
+	long sendTimeoutMs;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@PostConstruct
+	void init() {
+		senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+			Thread thread = new Thread(runnable, "stock-alerts-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "stock-alerts-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, sendTimeoutMs / 2);
+		watchdog.scheduleAtFixedRate(this::evictStalled, period, period, TimeUnit.MILLISECONDS);
+		Gauge.builder("achat.stock.alerts.subscribers", subscribers, Set::size)
+				.description("Nombre de clients abonnés au flux d'alertes de stock")
+				.register(meterRegistry);
+		droppedSubscribers = Counter.builder("achat.stock.alerts.dropped")
+				.description("Clients déconnectés car trop lents à consommer les alertes (tampon plein ou envoi bloqué)")
+				.register(meterRegistry);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		watchdog.shutdownNow();
+		senders.shutdownNow();
+		for (Subscriber subscriber : subscribers) {
+			subscriber.emitter.complete();
+		}
+		subscribers.clear();
+	}
+
+	public SseEmitter subscribe() {
+		return subscribe(new SseEmitter(timeoutMs));
+	}
+
+	SseEmitter subscribe(SseEmitter emitter) {
+		Subscriber subscriber = new Subscriber(emitter, bufferSize);
+		subscribers.add(subscriber);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		return emitter;
+	}
+
+	@EventListener
+	public void onThresholdCrossed(StockThresholdCrossedEvent event) {
+		for (Subscriber subscriber : subscribers) {
+			if (subscriber.queue.offer(event)) {
+				scheduleDrain(subscriber);
+			} else {
+				drop(subscriber, "tampon plein");
+			}
+		}
+	}
+
+	private void scheduleDrain(Subscriber subscriber) {
+		if (subscriber.draining.compareAndSet(false, true)) {
+			try {
+				senders.execute(() -> drain(subscriber));
+			} catch (RejectedExecutionException e) {
+				subscriber.draining.set(false);
+			}
+		}
+	}
+
+	private void drain(Subscriber subscriber) {
+		try {
+			StockThresholdCrossedEvent event;
+			while (subscribers.contains(subscriber) && (event = subscriber.queue.poll()) != null) {
+				synchronized (subscriber) {
+					subscriber.sender = Thread.currentThread();
+					subscriber.sendStartedAt = System.nanoTime();
+				}
+				try {
+					subscriber.emitter.send(SseEmitter.event()
+							.name(event.isEnRouge() ? "stock-en-rouge" : "stock-retabli")
+							.id(String.valueOf(event.getDate().getTime()))
+							.data(event));
+				} finally {
+					synchronized (subscriber) {
+						subscriber.sender = null;
+					}
+				}
+			}
+		} catch (IOException | IllegalStateException e) {
+			drop(subscriber, e.getMessage());
+		} finally {
+			// interruption de la surveillance arrivée après la fin du send()
+			Thread.interrupted();
+			if (!subscribers.contains(subscriber) && subscriber.closed.compareAndSet(false, true)) {
+				subscriber.emitter.complete();
+			}
+			subscriber.draining.set(false);
+		}
+		// un événement ou une déconnexion a pu arriver entre la dernière vérification et la remise à false
+		boolean dropped = !subscribers.contains(subscriber);
+		if (dropped ? !subscriber.closed.get() : !subscriber.queue.isEmpty()) {
+			scheduleDrain(subscriber);
+		}
+	}
+
+	void evictStalled() {
+		long now = System.nanoTime();
+		for (Subscriber subscriber : subscribers) {
+			synchronized (subscriber) {
+				if (subscriber.sender == null
+						|| now - subscriber.sendStartedAt < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+					continue;
+				}
+			}
+			drop(subscriber, "envoi bloqué depuis plus de " + sendTimeoutMs + " ms");
+		}
+	}
+
+	private void drop(Subscriber subscriber, String reason) {
+		if (subscribers.remove(subscriber)) {
+			droppedSubscribers.increment();
+			log.warn("Client du flux d'alertes de stock déconnecté : {}", reason);
+			subscriber.queue.clear();
+			synchronized (subscriber) {
+				if (subscriber.sender != null) {
+					subscriber.sender.interrupt();
+				}
+			}
+			// fermeture de l'émetteur par un thread d'envoi (voir drain)
+			scheduleDrain(subscriber);
+		}
+	}
+
+	private static final class Subscriber {
+		private final SseEmitter emitter;
+		private final BlockingQueue<StockThresholdCrossedEvent> queue;
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private Thread sender;
+		private long sendStartedAt;
+
+		private Subscriber(SseEmitter emitter, int bufferSize) {
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(bufferSize);
+		}
+	}
+}
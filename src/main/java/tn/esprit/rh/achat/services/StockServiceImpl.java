@@ -2,13 +2,21 @@ package tn.esprit.rh.achat.services;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
 import tn.esprit.rh.achat.entities.Stock;
 import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.util.LogSampler;
 
+import javax.annotation.PostConstruct;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Slf4j
@@ -16,53 +24,129 @@ public class StockServiceImpl implements IStockService {
 
 	@Autowired
 	StockRepository stockRepository;
+	@Autowired
+	LowStockIndex lowStockIndex;
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+	@Autowired
+	InvalidationBus invalidationBus;
+	@Autowired
+	ReorderSuggestions reorderSuggestions;
+	@Autowired
+	LogSampler logSampler;
+
+	// ReentrantLock plutôt que synchronized : un thread virtuel qui attend n'épingle pas son porteur
+	private final ReentrantLock premierCalcul = new ReentrantLock();
 
+	/*
+	 * Les modifications faites sur les autres réplicas sont relues en base et l'index
+	 * local compare l'ancien et le nouvel état : chaque réplica émet l'alerte de
+	 * franchissement de seuil à ses propres clients SSE. Le réplica d'origine a déjà
+	 * mis son index à jour, la relecture n'y produit pas de seconde alerte.
+	 */
+	@PostConstruct
+	void subscribe() {
+		invalidationBus.subscribe(Stock.class, id -> {
+			Stock stock = stockRepository.findById(id).orElse(null);
+			if (stock == null) {
+				lowStockIndex.remove(id);
+			} else {
+				updateLowStockIndex(stock);
+			}
+		});
+	}
 
 	@Override
-	public List<Stock> retrieveAllStocks() {
-		// récuperer la date à l'instant t1
-		log.info("In method retrieveAllStocks");
-		List<Stock> stocks = (List<Stock>) stockRepository.findAll();
-		for (Stock stock : stocks) {
-			log.info(" Stock : " + stock);
-		}
-		log.info("out of method retrieveAllStocks");
-		// récuperer la date à l'instant t2
-		// temps execution = t2 - t1
+	@Transactional(readOnly = true)
+	public List<StockDTO> retrieveAllStocks() {
+		// durée, requêtes et allocation : achat.service.* (ServiceMetricsAspect)
+		List<StockDTO> stocks = stockRepository.findAllDTO();
+		logSampler.echantillonner(log, stocks, s -> log.debug("Stock {} {} : qte {} (min {})", s.getIdStock(),
+				s.getLibelleStock(), s.getQte(), s.getQteMin()));
 		return stocks;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<StockDTO> retrieveStocksPage(Long afterId, int limit) {
+		return stockRepository.findDTOPage(afterId, PageRequest.of(0, limit));
+	}
+
 	@Override
 	public Stock addStock(Stock s) {
 		// récuperer la date à l'instant t1
 		log.info("In method addStock");
-		return stockRepository.save(s);
-		
+		Stock stock = stockRepository.save(s);
+		updateLowStockIndex(stock);
+		invalidationBus.publish(Stock.class, stock.getIdStock());
+		return stock;
 	}
 
 	@Override
 	public void deleteStock(Long stockId) {
 		log.info("In method deleteStock");
 		stockRepository.deleteById(stockId);
+		lowStockIndex.remove(stockId);
+		invalidationBus.publish(Stock.class, stockId);
 
 	}
 
 	@Override
 	public Stock updateStock(Stock s) {
 		log.info("In method updateStock");
-		return stockRepository.save(s);
+		Stock stock = stockRepository.save(s);
+		updateLowStockIndex(stock);
+		invalidationBus.publish(Stock.class, stock.getIdStock());
+		return stock;
+	}
+
+	/*
+	 * Seuls les franchissements du seuil (entrée ou sortie du rouge) produisent une alerte
+	 */
+	private void updateLowStockIndex(Stock stock) {
+		LowStockIndex.Transition transition = lowStockIndex.update(stock);
+		if (transition == LowStockIndex.Transition.AUCUNE) {
+			return;
+		}
+		boolean enRouge = transition == LowStockIndex.Transition.ENTREE_EN_ROUGE;
+		if (enRouge) {
+			log.warn("Le stock {} passe en rouge : quantité {} inférieure au minimum {}", stock.getLibelleStock(),
+					stock.getQte(), stock.getQteMin());
+		} else {
+			log.info("Le stock {} sort du rouge : quantité {} (minimum {})", stock.getLibelleStock(), stock.getQte(),
+					stock.getQteMin());
+		}
+		eventPublisher.publishEvent(new StockThresholdCrossedEvent(stock.getIdStock(), stock.getLibelleStock(),
+				stock.getQte(), stock.getQteMin(), enRouge, new Date()));
 	}
 
 	@Override
 	public Stock retrieveStock(Long stockId) {
-		long start = System.currentTimeMillis();
-		log.info("In method retrieveStock");
-		Stock stock = stockRepository.findById(stockId).orElse(null);
-		log.info("out of method retrieveStock");
-		 long elapsedTime = System.currentTimeMillis() - start;
-		log.info("Method execution time: " + elapsedTime + " milliseconds.");
+		return stockRepository.findById(stockId).orElse(null);
+	}
 
-		return stock;
+	@Override
+	public List<StockDTO> retrieveStocksEnRouge() {
+		return lowStockIndex.getStocksEnRouge();
+	}
+
+	/**
+	 * résultats du dernier calcul planifié ; premier calcul fait à la demande, une seule fois :
+	 * les appels concurrents attendent son résultat au lieu de relancer chacun le parcours
+	 */
+	@Override
+	public List<ReorderSuggestionDTO> retrieveReorderSuggestions() {
+		List<ReorderSuggestionDTO> suggestions = reorderSuggestions.getDernieres();
+		if (suggestions != null) {
+			return suggestions;
+		}
+		premierCalcul.lock();
+		try {
+			suggestions = reorderSuggestions.getDernieres();
+			return suggestions != null ? suggestions : reorderSuggestions.calculer();
+		} finally {
+			premierCalcul.unlock();
+		}
 	}
 
 	@Override
@@ -70,18 +154,16 @@ public class StockServiceImpl implements IStockService {
 		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
 		Date now = new Date();
 		String msgDate = sdf.format(now);
-		String finalMessage = "";
 		String newLine = System.getProperty("line.separator");
-		List<Stock> stocksEnRouge = (List<Stock>) stockRepository.retrieveStatusStock();
-		for (int i = 0; i < stocksEnRouge.size(); i++) {
-			finalMessage = newLine + finalMessage + msgDate + newLine + ": le stock "
-					+ stocksEnRouge.get(i).getLibelleStock() + " a une quantité de " + stocksEnRouge.get(i).getQte()
-					+ " inférieur à la quantité minimale a ne pas dépasser de " + stocksEnRouge.get(i).getQteMin()
-					+ newLine;
-
+		StringBuilder finalMessage = new StringBuilder();
+		for (StockDTO stock : lowStockIndex.getStocksEnRouge()) {
+			finalMessage.append(newLine).append(msgDate).append(newLine).append(": le stock ")
+					.append(stock.getLibelleStock()).append(" a une quantité de ").append(stock.getQte())
+					.append(" inférieur à la quantité minimale a ne pas dépasser de ").append(stock.getQteMin())
+					.append(newLine);
 		}
-		log.info(finalMessage);
-		return finalMessage;
+		log.info(finalMessage.toString());
+		return finalMessage.toString();
 	}
 
 }
\ No newline at end of file
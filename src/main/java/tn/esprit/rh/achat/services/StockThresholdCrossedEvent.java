@@ -0,0 +1,21 @@
+package tn.esprit.rh.achat.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Publié quand la quantité d'un stock franchit sa quantité minimale (dans un sens ou dans l'autre)
+ */
+@Getter
+@AllArgsConstructor
+public class StockThresholdCrossedEvent {
+	private final Long idStock;
+	private final String libelleStock;
+	private final Integer qte;
+	private final Integer qteMin;
+	/** true : le stock vient de passer en rouge, false : il vient d'en sortir */
+	private final boolean enRouge;
+	private final Date date;
+}
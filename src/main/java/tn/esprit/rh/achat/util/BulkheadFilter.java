@@ -0,0 +1,84 @@
+package tn.esprit.rh.achat.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cloison (bulkhead) devant les contrôleurs : au plus {@code permits} requêtes en cours de
+ * traitement, les suivantes attendent {@code acquire-timeout-ms} puis reçoivent un 503.
+ * Avec les threads virtuels (profil Maven java21) Tomcat n'a plus de plafond de threads :
+ * sans cette limite, une rafale ouvre autant de requêtes que de clients et toutes
+ * attendent une connexion Hikari jusqu'à l'expiration de connection-timeout. Le nombre de
+ * permis ne dépasse pas spring.datasource.hikari.maximum-pool-size. En Java 11, le pool de
+ * threads Tomcat borne déjà la concurrence : le filtre n'est déclaré que par
+ * VirtualThreadConfig (achat.bulkhead.enabled=false pour l'y retirer).
+ * <p>
+ * Le permis est rendu au retour du contrôleur : les réponses asynchrones (export
+ * StreamingResponseBody, flux SSE) ne le gardent pas. /actuator n'est pas limité.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    @Value("${achat.bulkhead.permits:20}")
+    int permits;
+    @Value("${achat.bulkhead.acquire-timeout-ms:2000}")
+    long acquireTimeoutMs;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Semaphore semaphore;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        semaphore = new Semaphore(permits, true);
+        Gauge.builder("achat.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .description("Permis libres de la cloison devant les contrôleurs")
+                .register(meterRegistry);
+        rejected = Counter.builder("achat.bulkhead.rejected")
+                .description("Requêtes refusées (503) faute de permis dans le délai")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquis;
+        try {
+            acquis = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquis = false;
+        }
+        if (!acquis) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Serveur saturé, réessayer plus tard");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+}
@@ -3,8 +3,11 @@ package tn.esprit.rh.achat.util;
 import org.springframework.stereotype.Component;
 import tn.esprit.rh.achat.dto.*;
 import tn.esprit.rh.achat.entities.*;
+import tn.esprit.rh.achat.services.ProduitPrix;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -42,19 +45,31 @@ public class DTOMapper {
         dto.setIdProduit(entity.getIdProduit());
         dto.setCodeProduit(entity.getCodeProduit());
         dto.setLibelleProduit(entity.getLibelleProduit());
-        dto.setPrix(entity.getPrix());
+        dto.setPrix(Money.toDouble(entity.getPrix()));
         dto.setDateCreation(entity.getDateCreation());
         dto.setDateDerniereModification(entity.getDateDerniereModification());
         return dto;
     }
 
+    public ProduitDTO toDTO(ProduitPrix prix) {
+        if (prix == null) return null;
+        ProduitDTO dto = new ProduitDTO();
+        dto.setIdProduit(prix.getIdProduit());
+        dto.setCodeProduit(prix.getCodeProduit());
+        dto.setLibelleProduit(prix.getLibelleProduit());
+        dto.setPrix(Money.toDouble(prix.getPrix()));
+        dto.setDateCreation(prix.getDateCreation());
+        dto.setDateDerniereModification(prix.getDateDerniereModification());
+        return dto;
+    }
+
     public Produit toEntity(ProduitDTO dto) {
         if (dto == null) return null;
         Produit entity = new Produit();
         entity.setIdProduit(dto.getIdProduit());
         entity.setCodeProduit(dto.getCodeProduit());
         entity.setLibelleProduit(dto.getLibelleProduit());
-        entity.setPrix(dto.getPrix());
+        entity.setPrix(Money.of(dto.getPrix()));
         entity.setDateCreation(dto.getDateCreation());
         entity.setDateDerniereModification(dto.getDateDerniereModification());
         return entity;
@@ -165,8 +180,8 @@ public class DTOMapper {
         if (entity == null) return null;
         FactureDTO dto = new FactureDTO();
         dto.setIdFacture(entity.getIdFacture());
-        dto.setMontantRemise(entity.getMontantRemise());
-        dto.setMontantFacture(entity.getMontantFacture());
+        dto.setMontantRemise(Money.toDouble(entity.getMontantRemise()));
+        dto.setMontantFacture(Money.toDouble(entity.getMontantFacture()));
         dto.setDateCreationFacture(entity.getDateCreationFacture());
         dto.setDateDerniereModificationFacture(entity.getDateDerniereModificationFacture());
         dto.setArchivee(entity.getArchivee());
@@ -177,8 +192,8 @@ public class DTOMapper {
         if (dto == null) return null;
         Facture entity = new Facture();
         entity.setIdFacture(dto.getIdFacture());
-        entity.setMontantRemise(dto.getMontantRemise());
-        entity.setMontantFacture(dto.getMontantFacture());
+        entity.setMontantRemise(Money.of(dto.getMontantRemise()));
+        entity.setMontantFacture(Money.of(dto.getMontantFacture()));
         entity.setDateCreationFacture(dto.getDateCreationFacture());
         entity.setDateDerniereModificationFacture(dto.getDateDerniereModificationFacture());
         entity.setArchivee(dto.getArchivee());
@@ -189,13 +204,48 @@ public class DTOMapper {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    public Facture toEntity(FactureCreationDTO dto) {
+        if (dto == null) return null;
+        Facture entity = new Facture();
+        entity.setDateCreationFacture(dto.getDateCreationFacture());
+        if (dto.getIdFournisseur() != null) {
+            Fournisseur fournisseur = new Fournisseur();
+            fournisseur.setIdFournisseur(dto.getIdFournisseur());
+            entity.setFournisseur(fournisseur);
+        }
+        Set<DetailFacture> details = new HashSet<>();
+        if (dto.getDetailsFacture() != null) {
+            for (DetailFactureDTO detailDTO : dto.getDetailsFacture()) {
+                details.add(toEntity(detailDTO));
+            }
+        }
+        entity.setDetailsFacture(details);
+        return entity;
+    }
+
+    public List<Facture> toFactureEntityList(List<FactureCreationDTO> dtos) {
+        return dtos.stream().map(this::toEntity).collect(Collectors.toList());
+    }
+
+    // DetailFacture mappings
+    public DetailFacture toEntity(DetailFactureDTO dto) {
+        if (dto == null) return null;
+        DetailFacture entity = new DetailFacture();
+        Produit produit = new Produit();
+        produit.setIdProduit(dto.getIdProduit());
+        entity.setProduit(produit);
+        entity.setQteCommandee(dto.getQteCommandee());
+        entity.setPourcentageRemise(dto.getPourcentageRemise());
+        return entity;
+    }
+
     // Reglement mappings
     public ReglementDTO toDTO(Reglement entity) {
         if (entity == null) return null;
         ReglementDTO dto = new ReglementDTO();
         dto.setIdReglement(entity.getIdReglement());
-        dto.setMontantPaye(entity.getMontantPaye());
-        dto.setMontantRestant(entity.getMontantRestant());
+        dto.setMontantPaye(Money.toDouble(entity.getMontantPaye()));
+        dto.setMontantRestant(Money.toDouble(entity.getMontantRestant()));
         dto.setDateReglement(entity.getDateReglement());
         dto.setPayee(entity.getPayee());
         return dto;
@@ -205,8 +255,8 @@ public class DTOMapper {
         if (dto == null) return null;
         Reglement entity = new Reglement();
         entity.setIdReglement(dto.getIdReglement());
-        entity.setMontantPaye(dto.getMontantPaye());
-        entity.setMontantRestant(dto.getMontantRestant());
+        entity.setMontantPaye(Money.of(dto.getMontantPaye()));
+        entity.setMontantRestant(Money.of(dto.getMontantRestant()));
         entity.setDateReglement(dto.getDateReglement());
         entity.setPayee(dto.getPayee());
         return entity;
@@ -0,0 +1,25 @@
+package tn.esprit.rh.achat.util;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+public final class DateUtils {
+
+    private DateUtils() {
+    }
+
+    /**
+     * Jour calendaire d'une date, qu'elle vienne de JPA (java.sql.Date, dont toInstant() n'est pas supporté)
+     * ou d'un paramètre de requête (java.util.Date à minuit heure locale).
+     */
+    public static LocalDate toLocalDate(Date date) {
+        if (date == null) {
+            return null;
+        }
+        if (date instanceof java.sql.Date) {
+            return ((java.sql.Date) date).toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,115 @@
+package tn.esprit.rh.achat.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pagination par clé (keyset) pour les endpoints de liste.
+ * Le curseur est un jeton opaque (Base64 URL) contenant la clé de la dernière ligne renvoyée ;
+ * les repositories lisent "WHERE id > :afterId ORDER BY id" avec une limite de taille+1
+ * pour savoir s'il existe une page suivante sans COUNT.
+ */
+public final class KeysetPage {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SEPARATOR = ":";
+
+    private KeysetPage() {
+    }
+
+    /** Taille de page demandée, bornée à [1, MAX_PAGE_SIZE]. */
+    public static int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /** Nombre de lignes à lire en base pour une page : une de plus pour détecter la page suivante. */
+    public static int fetchSize(int pageSize) {
+        return pageSize + 1;
+    }
+
+    /** Identifiant après lequel reprendre la lecture (0 pour la première page). */
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        String[] parts = decode(cursor);
+        try {
+            return Long.parseLong(parts[parts.length - 1]);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Date de la dernière ligne pour les curseurs composites (date, id) construits par
+     * {@link #dateKey(Date)} ; null pour la première page ou une ligne sans date.
+     */
+    public static Date afterDate(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String[] parts = decode(cursor);
+        if (parts.length < 2 || parts[0].isEmpty()) {
+            return null;
+        }
+        try {
+            return new Date(Long.parseLong(parts[0]));
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /** Composante date d'un curseur composite (vide si la ligne n'a pas de date). */
+    public static String dateKey(Date date) {
+        return date == null ? "" : String.valueOf(date.getTime());
+    }
+
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return raw.split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Construit la page à partir des lignes lues (au plus pageSize+1) : la ligne en trop
+     * n'est pas renvoyée, elle indique seulement qu'un curseur suivant est nécessaire.
+     */
+    public static <E, D> CursorPageDTO<D> of(List<E> rows, int pageSize, Function<E, Long> idOf, Function<E, D> mapper) {
+        return withCursor(rows, pageSize, row -> encode(String.valueOf(idOf.apply(row))), mapper);
+    }
+
+    /** Variante pour les clés composites : cursorOf construit le jeton complet de la dernière ligne. */
+    public static <E, D> CursorPageDTO<D> withCursor(List<E> rows, int pageSize, Function<E, String> cursorOf,
+            Function<E, D> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        List<D> content = pageRows.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageDTO<>(content, nextCursor, content.size());
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide");
+    }
+}
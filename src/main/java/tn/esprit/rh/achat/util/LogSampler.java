@@ -0,0 +1,92 @@
+package tn.esprit.rh.achat.util;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Journal DEBUG échantillonné des lignes renvoyées par les services : une ligne sur
+ * {@code taux}, au plus {@code maxParSeconde} par seconde pour toute l'application.
+ * Rien n'est évalué tant que le logger du service n'est pas en DEBUG.
+ * <p>
+ * Réglable à chaud : niveau par /actuator/loggers/{logger}, échantillonnage par
+ * GET / POST /actuator/logsampling {"taux": 10, "maxParSeconde": 50} (taux 0 = coupé).
+ */
+@Component
+@Endpoint(id = "logsampling")
+public class LogSampler {
+
+    private volatile int taux;
+    private volatile int maxParSeconde;
+
+    private final AtomicLong compteur = new AtomicLong();
+    private final AtomicLong seconde = new AtomicLong();
+    private final AtomicInteger dansLaSeconde = new AtomicInteger();
+
+    public LogSampler(@Value("${achat.logging.sample-rate:100}") int taux,
+                      @Value("${achat.logging.sample-max-per-second:20}") int maxParSeconde) {
+        this.taux = taux;
+        this.maxParSeconde = maxParSeconde;
+    }
+
+    /** passe à {@code journal} les lignes échantillonnées, si {@code log} est en DEBUG */
+    public <T> void echantillonner(Logger log, List<T> lignes, Consumer<T> journal) {
+        int n = taux;
+        if (n <= 0 || !log.isDebugEnabled()) {
+            return;
+        }
+        for (T ligne : lignes) {
+            if (compteur.incrementAndGet() % n == 0) {
+                if (!autorise()) {
+                    return;
+                }
+                journal.accept(ligne);
+            }
+        }
+    }
+
+    /** vrai si un appel isolé doit être journalisé (même règle que pour les lignes) */
+    public boolean echantillon(Logger log) {
+        int n = taux;
+        return n > 0 && log.isDebugEnabled() && compteur.incrementAndGet() % n == 0 && autorise();
+    }
+
+    private boolean autorise() {
+        long maintenant = System.currentTimeMillis() / 1000;
+        long courante = seconde.get();
+        if (courante != maintenant && seconde.compareAndSet(courante, maintenant)) {
+            dansLaSeconde.set(0);
+        }
+        return dansLaSeconde.incrementAndGet() <= maxParSeconde;
+    }
+
+    @ReadOperation
+    public Map<String, Object> configuration() {
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("taux", taux);
+        configuration.put("maxParSeconde", maxParSeconde);
+        return configuration;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configurer(@Nullable Integer taux, @Nullable Integer maxParSeconde) {
+        if (taux != null) {
+            this.taux = Math.max(0, taux);
+        }
+        if (maxParSeconde != null) {
+            this.maxParSeconde = Math.max(0, maxParSeconde);
+        }
+        return configuration();
+    }
+}
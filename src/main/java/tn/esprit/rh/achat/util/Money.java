@@ -0,0 +1,57 @@
+package tn.esprit.rh.achat.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Montants en virgule fixe : un montant est un {@code long} exprimé en millimes
+ * (1 dinar = 1000 millimes). Toutes les opérations sont statiques et travaillent
+ * sur des primitives, sans allocation ; les dépassements lèvent une
+ * {@link ArithmeticException} au lieu de déborder silencieusement.
+ */
+public final class Money {
+
+    public static final int SCALE = 3;
+    public static final long UNIT = 1000L;
+    /** diviseur JPQL pour projeter un montant en dinars (double) : {@code "f.montantFacture / " + JPQL_UNIT} */
+    public static final String JPQL_UNIT = "1000.0";
+
+    private Money() {
+    }
+
+    /** montant décimal (API, saisie) vers millimes, arrondi au millime le plus proche */
+    public static long of(double amount) {
+        return Math.round(amount * UNIT);
+    }
+
+    public static double toDouble(long millimes) {
+        return (double) millimes / UNIT;
+    }
+
+    public static BigDecimal toBigDecimal(long millimes) {
+        return BigDecimal.valueOf(millimes, SCALE);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /** prix unitaire x quantité */
+    public static long multiply(long millimes, long quantite) {
+        return Math.multiplyExact(millimes, quantite);
+    }
+
+    /** pourcentage d'un montant, arrondi au millime (demi à l'écart de zéro) */
+    public static long percentage(long millimes, int pourcentage) {
+        long produit = Math.multiplyExact(millimes, pourcentage);
+        return produit >= 0 ? (produit + 50) / 100 : -((-produit + 50) / 100);
+    }
+
+    /** ratio en pourcentage de deux montants, 0 si le dénominateur est nul */
+    public static float ratio(long numerateur, long denominateur) {
+        return denominateur == 0 ? 0 : (float) (numerateur * 100.0 / denominateur);
+    }
+}
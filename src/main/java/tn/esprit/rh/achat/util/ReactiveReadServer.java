@@ -0,0 +1,99 @@
+package tn.esprit.rh.achat.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import tn.esprit.rh.achat.controllers.CatalogueReactiveRoutes;
+import tn.esprit.rh.achat.repositories.CatalogueReactiveRepository;
+
+import java.time.Duration;
+
+/**
+ * Serveur Reactor Netty de l'API de lecture réactive (CatalogueReactiveRoutes), à côté du
+ * Tomcat de l'application : les lectures de /produit, /stock et /categorieProduit n'y
+ * prennent ni thread de requête ni connexion Hikari, un client lent ne coûte qu'un socket.
+ * <p>
+ * Le pool R2DBC est privé au serveur et n'est pas publié comme bean : une ConnectionFactory
+ * dans le contexte désactive la DataSource JDBC de Spring Boot (JPA, Flyway). Pour la même
+ * raison R2dbcAutoConfiguration est exclue dans AchatApplication.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "achat.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadServer implements SmartLifecycle {
+
+    @Value("${achat.reactive.port:8090}")
+    int port;
+    @Value("${achat.reactive.prefetch:256}")
+    int prefetch;
+    @Value("${achat.reactive.r2dbc.url}")
+    String url;
+    @Value("${achat.reactive.r2dbc.username:}")
+    String username;
+    @Value("${achat.reactive.r2dbc.password:}")
+    String password;
+    @Value("${achat.reactive.r2dbc.pool.max-size:10}")
+    int poolMaxSize;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private ConnectionPool pool;
+    private DisposableServer server;
+
+    @Override
+    public void start() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(poolMaxSize)
+                .maxAcquireTime(Duration.ofSeconds(3))
+                .build());
+        // même ObjectMapper que Spring MVC : dates et noms de champs identiques sur les deux API
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        HttpHandler handler = RouterFunctions.toHttpHandler(
+                CatalogueReactiveRoutes.routes(new CatalogueReactiveRepository(DatabaseClient.create(pool)), prefetch),
+                strategies);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+        log.info("API de lecture réactive démarrée sur le port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isDisposed();
+    }
+}
@@ -0,0 +1,51 @@
+package tn.esprit.rh.achat.util;
+
+/**
+ * Moyenne et variance calculées en une seule passe (algorithme de Welford), en mémoire
+ * constante : aucune valeur n'est conservée.
+ */
+public final class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /**
+     * Ajoute k valeurs nulles d'un coup (fusion de deux groupes, Chan et al.) : les jours
+     * sans consommation ne sont pas lus un par un.
+     */
+    public void addZeros(long k) {
+        if (k <= 0) {
+            return;
+        }
+        long total = count + k;
+        double delta = -mean;
+        m2 += delta * delta * count * k / total;
+        mean += delta * k / total;
+        count = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /** variance de la population (toutes les valeurs de la fenêtre sont connues) */
+    public double getVariance() {
+        return count == 0 ? 0 : m2 / count;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+}
@@ -0,0 +1,110 @@
+package tn.esprit.rh.achat.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesures par méthode de toutes les implémentations de tn.esprit.rh.achat.services.I*Service,
+ * taguées service et method (histogrammes configurés dans application.properties) :
+ * <ul>
+ * <li>achat.service.latence : durée de l'appel, tag exception</li>
+ * <li>achat.service.requetes : requêtes SQL préparées pendant l'appel (SqlStatementCounter)</li>
+ * <li>achat.service.allocation : octets alloués par le thread appelant (ThreadMXBean)</li>
+ * </ul>
+ * Les appels imbriqués (un service qui en appelle un autre) sont comptés dans les deux.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final Map<String, Mesures> mesures = new ConcurrentHashMap<>();
+
+    private static final class Mesures {
+        final String service;
+        final String method;
+        final DistributionSummary requetes;
+        final DistributionSummary allocation;
+        final Map<String, Timer> latenceParException = new ConcurrentHashMap<>();
+
+        Mesures(MeterRegistry registry, String service, String method) {
+            this.service = service;
+            this.method = method;
+            requetes = DistributionSummary.builder("achat.service.requetes")
+                    .description("Requêtes SQL par appel de service")
+                    .baseUnit("requetes")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .register(registry);
+            allocation = DistributionSummary.builder("achat.service.allocation")
+                    .description("Octets alloués par le thread appelant pendant l'appel de service")
+                    .baseUnit("bytes")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .register(registry);
+        }
+
+        Timer latence(MeterRegistry registry, String exception) {
+            return latenceParException.computeIfAbsent(exception, e -> Timer.builder("achat.service.latence")
+                    .description("Durée des appels aux services")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("exception", e)
+                    .register(registry));
+        }
+    }
+
+    @Around("execution(* tn.esprit.rh.achat.services.I*Service.*(..))")
+    public Object mesurer(ProceedingJoinPoint pjp) throws Throwable {
+        Mesures m = mesures.computeIfAbsent(
+                AopUtils.getTargetClass(pjp.getTarget()).getSimpleName() + "#" + pjp.getSignature().getName(),
+                cle -> new Mesures(meterRegistry, cle.substring(0, cle.indexOf('#')), cle.substring(cle.indexOf('#') + 1)));
+        long thread = Thread.currentThread().getId();
+        long octetsAvant = ALLOCATIONS != null ? ALLOCATIONS.getThreadAllocatedBytes(thread) : -1;
+        long requetesAvant = SqlStatementCounter.courant();
+        long debut = System.nanoTime();
+        String exception = "none";
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            long duree = System.nanoTime() - debut;
+            m.requetes.record(SqlStatementCounter.courant() - requetesAvant);
+            if (octetsAvant >= 0) {
+                m.allocation.record(ALLOCATIONS.getThreadAllocatedBytes(thread) - octetsAvant);
+            }
+            m.latence(meterRegistry, exception).record(duree, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** null si la JVM ne mesure pas les allocations par thread */
+    private static com.sun.management.ThreadMXBean allocations() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package tn.esprit.rh.achat.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate, par thread (voir ServiceMetricsAspect).
+ * Déclaré par hibernate.session_factory.statement_inspector : Hibernate instancie la classe
+ * lui-même, le compteur est donc statique. Il ne fait qu'augmenter ; l'appelant mesure une
+ * différence, ce qui reste juste pour des appels imbriqués.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COMPTEUR = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COMPTEUR.get()[0]++;
+        return sql;
+    }
+
+    /** requêtes préparées par le thread courant depuis son démarrage */
+    public static long courant() {
+        return COMPTEUR.get()[0];
+    }
+}
@@ -0,0 +1,176 @@
+-- Schema de reference (MySQL), tel que ddl-auto=update l'avait construit avant
+-- l'introduction de Flyway, scripts de db/scripts compris (generateurs pooled,
+-- montants en millimes).
+--
+-- Base existante : spring.flyway.baseline-on-migrate marque cette version comme
+-- appliquee sans l'executer ; seules les versions suivantes sont jouees.
+-- Base vide : cree le schema complet.
+
+CREATE TABLE categorie_produit (
+    id_categorie_produit BIGINT NOT NULL,
+    code_categorie VARCHAR(255),
+    libelle_categorie VARCHAR(255),
+    PRIMARY KEY (id_categorie_produit)
+);
+
+CREATE TABLE secteur_activite (
+    id_secteur_activite BIGINT NOT NULL,
+    code_secteur_activite VARCHAR(255),
+    libelle_secteur_activite VARCHAR(255),
+    PRIMARY KEY (id_secteur_activite)
+);
+
+CREATE TABLE operateur (
+    id_operateur BIGINT NOT NULL,
+    nom VARCHAR(255),
+    password VARCHAR(255),
+    prenom VARCHAR(255),
+    PRIMARY KEY (id_operateur)
+);
+
+CREATE TABLE stock (
+    id_stock BIGINT NOT NULL,
+    libelle_stock VARCHAR(255),
+    qte INTEGER,
+    qte_min INTEGER,
+    PRIMARY KEY (id_stock)
+);
+
+CREATE TABLE detail_fournisseur (
+    id_detail_fournisseur BIGINT NOT NULL,
+    adresse VARCHAR(255),
+    date_debut_collaboration DATE,
+    email VARCHAR(255),
+    matricule VARCHAR(255),
+    PRIMARY KEY (id_detail_fournisseur)
+);
+
+CREATE TABLE fournisseur (
+    id_fournisseur BIGINT NOT NULL,
+    categorie_fournisseur VARCHAR(255),
+    code VARCHAR(255),
+    libelle VARCHAR(255),
+    detail_fournisseur_id_detail_fournisseur BIGINT,
+    PRIMARY KEY (id_fournisseur),
+    CONSTRAINT fk_fournisseur_detail FOREIGN KEY (detail_fournisseur_id_detail_fournisseur)
+        REFERENCES detail_fournisseur (id_detail_fournisseur)
+);
+
+CREATE TABLE fournisseur_secteur_activites (
+    fournisseurs_id_fournisseur BIGINT NOT NULL,
+    secteur_activites_id_secteur_activite BIGINT NOT NULL,
+    PRIMARY KEY (fournisseurs_id_fournisseur, secteur_activites_id_secteur_activite),
+    CONSTRAINT fk_fournisseur_secteur_fournisseur FOREIGN KEY (fournisseurs_id_fournisseur)
+        REFERENCES fournisseur (id_fournisseur),
+    CONSTRAINT fk_fournisseur_secteur_secteur FOREIGN KEY (secteur_activites_id_secteur_activite)
+        REFERENCES secteur_activite (id_secteur_activite)
+);
+
+CREATE TABLE produit (
+    id_produit BIGINT NOT NULL,
+    code_produit VARCHAR(255),
+    date_creation DATE,
+    date_derniere_modification DATE,
+    libelle_produit VARCHAR(255),
+    prix BIGINT NOT NULL,
+    categorie_produit_id_categorie_produit BIGINT,
+    stock_id_stock BIGINT,
+    PRIMARY KEY (id_produit),
+    CONSTRAINT fk_produit_categorie FOREIGN KEY (categorie_produit_id_categorie_produit)
+        REFERENCES categorie_produit (id_categorie_produit),
+    CONSTRAINT fk_produit_stock FOREIGN KEY (stock_id_stock) REFERENCES stock (id_stock)
+);
+
+CREATE TABLE facture (
+    id_facture BIGINT NOT NULL,
+    archivee BIT,
+    date_creation_facture DATE,
+    date_derniere_modification_facture DATE,
+    montant_facture BIGINT NOT NULL,
+    montant_remise BIGINT NOT NULL,
+    fournisseur_id_fournisseur BIGINT,
+    PRIMARY KEY (id_facture),
+    CONSTRAINT fk_facture_fournisseur FOREIGN KEY (fournisseur_id_fournisseur)
+        REFERENCES fournisseur (id_fournisseur)
+);
+
+CREATE TABLE detail_facture (
+    id_detail_facture BIGINT NOT NULL,
+    montant_remise BIGINT NOT NULL,
+    pourcentage_remise INTEGER,
+    prix_total_detail BIGINT NOT NULL,
+    qte_commandee INTEGER,
+    facture_id_facture BIGINT,
+    produit_id_produit BIGINT,
+    PRIMARY KEY (id_detail_facture),
+    CONSTRAINT fk_detail_facture_facture FOREIGN KEY (facture_id_facture) REFERENCES facture (id_facture),
+    CONSTRAINT fk_detail_facture_produit FOREIGN KEY (produit_id_produit) REFERENCES produit (id_produit)
+);
+
+CREATE TABLE reglement (
+    id_reglement BIGINT NOT NULL,
+    date_reglement DATE,
+    montant_paye BIGINT NOT NULL,
+    montant_restant BIGINT NOT NULL,
+    payee BIT,
+    facture_id_facture BIGINT,
+    PRIMARY KEY (id_reglement),
+    CONSTRAINT fk_reglement_facture FOREIGN KEY (facture_id_facture) REFERENCES facture (id_facture)
+);
+
+CREATE TABLE operateur_factures (
+    operateur_id_operateur BIGINT NOT NULL,
+    factures_id_facture BIGINT NOT NULL,
+    PRIMARY KEY (operateur_id_operateur, factures_id_facture),
+    CONSTRAINT uk_operateur_factures_facture UNIQUE (factures_id_facture),
+    CONSTRAINT fk_operateur_factures_operateur FOREIGN KEY (operateur_id_operateur)
+        REFERENCES operateur (id_operateur),
+    CONSTRAINT fk_operateur_factures_facture FOREIGN KEY (factures_id_facture) REFERENCES facture (id_facture)
+);
+
+CREATE TABLE recouvrement_journalier (
+    id_recouvrement_journalier BIGINT NOT NULL,
+    id_fournisseur BIGINT,
+    jour DATE,
+    montant_facture BIGINT NOT NULL,
+    montant_paye BIGINT NOT NULL,
+    PRIMARY KEY (id_recouvrement_journalier),
+    CONSTRAINT uk_recouvrement_jour_fournisseur UNIQUE (jour, id_fournisseur)
+);
+
+CREATE TABLE changement_entite (
+    id_changement_entite BIGINT NOT NULL,
+    horodatage BIGINT NOT NULL,
+    id_entite BIGINT,
+    instance VARCHAR(255),
+    type_entite VARCHAR(255),
+    PRIMARY KEY (id_changement_entite)
+);
+CREATE INDEX idx_changement_entite_horodatage ON changement_entite (horodatage);
+
+-- Generateurs pooled-lo : MySQL n'a pas de sequences, Hibernate emule chacune
+-- par une table a une ligne
+CREATE TABLE categorie_produit_seq (next_val BIGINT);
+INSERT INTO categorie_produit_seq VALUES (1);
+CREATE TABLE changement_entite_seq (next_val BIGINT);
+INSERT INTO changement_entite_seq VALUES (1);
+CREATE TABLE detail_facture_seq (next_val BIGINT);
+INSERT INTO detail_facture_seq VALUES (1);
+CREATE TABLE detail_fournisseur_seq (next_val BIGINT);
+INSERT INTO detail_fournisseur_seq VALUES (1);
+CREATE TABLE facture_seq (next_val BIGINT);
+INSERT INTO facture_seq VALUES (1);
+CREATE TABLE fournisseur_seq (next_val BIGINT);
+INSERT INTO fournisseur_seq VALUES (1);
+CREATE TABLE operateur_seq (next_val BIGINT);
+INSERT INTO operateur_seq VALUES (1);
+CREATE TABLE produit_seq (next_val BIGINT);
+INSERT INTO produit_seq VALUES (1);
+CREATE TABLE recouvrement_journalier_seq (next_val BIGINT);
+INSERT INTO recouvrement_journalier_seq VALUES (1);
+CREATE TABLE reglement_seq (next_val BIGINT);
+INSERT INTO reglement_seq VALUES (1);
+CREATE TABLE secteur_activite_seq (next_val BIGINT);
+INSERT INTO secteur_activite_seq VALUES (1);
+CREATE TABLE stock_seq (next_val BIGINT);
+INSERT INTO stock_seq VALUES (1);
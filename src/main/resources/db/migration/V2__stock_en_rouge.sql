@@ -0,0 +1,6 @@
+-- Stocks sous le seuil : qte < qte_min compare deux colonnes d'une meme ligne et
+-- ne peut pas etre servi par un index. L'etat est donc materialise dans en_rouge,
+-- tenu a jour par Stock a chaque ecriture (@PrePersist / @PreUpdate).
+
+ALTER TABLE stock ADD COLUMN en_rouge BIT NOT NULL DEFAULT 0;
+UPDATE stock SET en_rouge = (qte IS NOT NULL AND qte_min IS NOT NULL AND qte < qte_min);
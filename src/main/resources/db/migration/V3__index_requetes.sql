@@ -0,0 +1,29 @@
+-- Index des requetes du package repositories (voir RepositoryQueryPlanTest).
+-- Les listes completes (findAll*, exports sans filtre) et les agregations de
+-- reconstruction parcourent volontairement toute la table et n'ont pas d'index.
+-- Les cles primaires et l'index unique de recouvrement_journalier (jour, id_fournisseur)
+-- servent deja les recherches par id, les pages par id et les agregats journaliers.
+
+-- FactureRepository.findDTOByFournisseur* : egalite (fournisseur, archivee), tri et
+-- bornes sur la date ; l'id (cle primaire, presente dans tout index secondaire InnoDB)
+-- departage les factures d'un meme jour pour le curseur. Couvre aussi la cle etrangere.
+CREATE INDEX idx_facture_fournisseur_archivee_date
+    ON facture (fournisseur_id_fournisseur, archivee, date_creation_facture);
+
+-- FactureRepository.getTotalFacturesEntreDeuxDates (archivee = false, date entre deux
+-- bornes, SUM du montant) lue dans l'index seul
+CREATE INDEX idx_facture_archivee_date_montant
+    ON facture (archivee, date_creation_facture, montant_facture);
+
+-- ReglementRepository.retrieveReglementByFacture / findDTOByFacture ; couvre la cle etrangere
+CREATE INDEX idx_reglement_facture_date
+    ON reglement (facture_id_facture, date_reglement);
+
+-- ReglementRepository.getChiffreAffaireEntreDeuxDate : plage de dates, SUM du montant,
+-- la facture est lue par sa cle primaire pour le filtre archivee
+CREATE INDEX idx_reglement_date_facture_montant
+    ON reglement (date_reglement, facture_id_facture, montant_paye);
+
+-- StockRepository.retrieveStatusStock (chargement de LowStockIndex)
+CREATE INDEX idx_stock_en_rouge
+    ON stock (en_rouge);
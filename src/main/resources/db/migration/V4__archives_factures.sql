@@ -0,0 +1,41 @@
+-- Tables froides des factures archivées (FactureArchiver) : mêmes colonnes que les
+-- tables chaudes, sans clé étrangère vers facture ; fournisseur, opérateur et produit
+-- restent de simples identifiants.
+
+CREATE TABLE facture_archive (
+    id_facture BIGINT NOT NULL,
+    archivee BIT,
+    date_creation_facture DATE,
+    date_derniere_modification_facture DATE,
+    montant_facture BIGINT NOT NULL,
+    montant_remise BIGINT NOT NULL,
+    fournisseur_id_fournisseur BIGINT,
+    operateur_id_operateur BIGINT,
+    date_archivage DATE,
+    PRIMARY KEY (id_facture)
+);
+
+CREATE TABLE detail_facture_archive (
+    id_detail_facture BIGINT NOT NULL,
+    montant_remise BIGINT NOT NULL,
+    pourcentage_remise INTEGER,
+    prix_total_detail BIGINT NOT NULL,
+    qte_commandee INTEGER,
+    facture_id_facture BIGINT,
+    produit_id_produit BIGINT,
+    PRIMARY KEY (id_detail_facture)
+);
+
+CREATE TABLE reglement_archive (
+    id_reglement BIGINT NOT NULL,
+    date_reglement DATE,
+    montant_paye BIGINT NOT NULL,
+    montant_restant BIGINT NOT NULL,
+    payee BIT,
+    facture_id_facture BIGINT,
+    PRIMARY KEY (id_reglement)
+);
+
+CREATE INDEX idx_facture_archive_fournisseur_date ON facture_archive (fournisseur_id_fournisseur, date_creation_facture);
+CREATE INDEX idx_detail_facture_archive_facture ON detail_facture_archive (facture_id_facture);
+CREATE INDEX idx_reglement_archive_facture ON reglement_archive (facture_id_facture);
@@ -0,0 +1,30 @@
+-- Migration des montants FLOAT -> BIGINT en millimes (MySQL)
+--
+-- Base creee avant Flyway et encore en FLOAT seulement : a executer une fois,
+-- application arretee, AVANT le premier demarrage avec Flyway. Au demarrage,
+-- baseline-on-migrate marque la base existante en version 1 (baseline-version=1)
+-- sans jouer V1__schema_initial.sql, qui decrit deja les montants en BIGINT ;
+-- seules V2 et suivantes sont appliquees, puis ddl-auto=validate refuse de demarrer
+-- si une colonne est restee en FLOAT. Base vide ou deja en millimes : ne rien faire.
+-- Passage par DECIMAL(19,3) pour arrondir chaque valeur FLOAT au millime avant la
+-- multiplication : un UPDATE direct en FLOAT perdrait la precision au-dela de 16 777 DT.
+
+ALTER TABLE produit MODIFY prix DECIMAL(19,3) NOT NULL;
+UPDATE produit SET prix = prix * 1000;
+ALTER TABLE produit MODIFY prix BIGINT NOT NULL;
+
+ALTER TABLE facture MODIFY montant_facture DECIMAL(19,3) NOT NULL, MODIFY montant_remise DECIMAL(19,3) NOT NULL;
+UPDATE facture SET montant_facture = montant_facture * 1000, montant_remise = montant_remise * 1000;
+ALTER TABLE facture MODIFY montant_facture BIGINT NOT NULL, MODIFY montant_remise BIGINT NOT NULL;
+
+ALTER TABLE detail_facture MODIFY prix_total_detail DECIMAL(19,3) NOT NULL, MODIFY montant_remise DECIMAL(19,3) NOT NULL;
+UPDATE detail_facture SET prix_total_detail = prix_total_detail * 1000, montant_remise = montant_remise * 1000;
+ALTER TABLE detail_facture MODIFY prix_total_detail BIGINT NOT NULL, MODIFY montant_remise BIGINT NOT NULL;
+
+ALTER TABLE reglement MODIFY montant_paye DECIMAL(19,3) NOT NULL, MODIFY montant_restant DECIMAL(19,3) NOT NULL;
+UPDATE reglement SET montant_paye = montant_paye * 1000, montant_restant = montant_restant * 1000;
+ALTER TABLE reglement MODIFY montant_paye BIGINT NOT NULL, MODIFY montant_restant BIGINT NOT NULL;
+
+-- Agregats de recouvrement : a recalculer ensuite depuis les tables ci-dessus
+-- par POST /SpringMVC/facture/recouvrement/rebuild
+ALTER TABLE recouvrement_journalier MODIFY montant_facture BIGINT NOT NULL, MODIFY montant_paye BIGINT NOT NULL;
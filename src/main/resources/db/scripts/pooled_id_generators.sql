@@ -0,0 +1,47 @@
+-- Migration IDENTITY (AUTO_INCREMENT) -> generateurs "pooled-lo" (MySQL)
+--
+-- MySQL n'a pas de sequences : Hibernate emule chaque @SequenceGenerator par une
+-- table a une ligne (next_val). A executer une fois, application arretee, AVANT de
+-- demarrer la version qui utilise les generateurs pooled. Chaque table de sequence
+-- est initialisee a MAX(id) + 1 pour ne jamais redistribuer un id existant.
+-- Les colonnes AUTO_INCREMENT existantes sont conservees (Hibernate fournit l'id).
+
+CREATE TABLE IF NOT EXISTS categorie_produit_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM categorie_produit_seq;
+INSERT INTO categorie_produit_seq (next_val) SELECT COALESCE(MAX(id_categorie_produit), 0) + 1 FROM categorie_produit;
+
+CREATE TABLE IF NOT EXISTS detail_facture_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM detail_facture_seq;
+INSERT INTO detail_facture_seq (next_val) SELECT COALESCE(MAX(id_detail_facture), 0) + 1 FROM detail_facture;
+
+CREATE TABLE IF NOT EXISTS detail_fournisseur_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM detail_fournisseur_seq;
+INSERT INTO detail_fournisseur_seq (next_val) SELECT COALESCE(MAX(id_detail_fournisseur), 0) + 1 FROM detail_fournisseur;
+
+CREATE TABLE IF NOT EXISTS facture_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM facture_seq;
+INSERT INTO facture_seq (next_val) SELECT COALESCE(MAX(id_facture), 0) + 1 FROM facture;
+
+CREATE TABLE IF NOT EXISTS fournisseur_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM fournisseur_seq;
+INSERT INTO fournisseur_seq (next_val) SELECT COALESCE(MAX(id_fournisseur), 0) + 1 FROM fournisseur;
+
+CREATE TABLE IF NOT EXISTS operateur_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM operateur_seq;
+INSERT INTO operateur_seq (next_val) SELECT COALESCE(MAX(id_operateur), 0) + 1 FROM operateur;
+
+CREATE TABLE IF NOT EXISTS produit_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM produit_seq;
+INSERT INTO produit_seq (next_val) SELECT COALESCE(MAX(id_produit), 0) + 1 FROM produit;
+
+CREATE TABLE IF NOT EXISTS reglement_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM reglement_seq;
+INSERT INTO reglement_seq (next_val) SELECT COALESCE(MAX(id_reglement), 0) + 1 FROM reglement;
+
+CREATE TABLE IF NOT EXISTS secteur_activite_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM secteur_activite_seq;
+INSERT INTO secteur_activite_seq (next_val) SELECT COALESCE(MAX(id_secteur_activite), 0) + 1 FROM secteur_activite;
+
+CREATE TABLE IF NOT EXISTS stock_seq (next_val BIGINT) ENGINE=InnoDB;
+DELETE FROM stock_seq;
+INSERT INTO stock_seq (next_val) SELECT COALESCE(MAX(id_stock), 0) + 1 FROM stock;
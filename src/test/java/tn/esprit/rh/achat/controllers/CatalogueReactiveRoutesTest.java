@@ -0,0 +1,128 @@
+package tn.esprit.rh.achat.controllers;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import tn.esprit.rh.achat.dto.CategorieProduitDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.repositories.CatalogueReactiveRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the reactive read routes, bound to WebTestClient on an in-memory H2 R2DBC
+ * database holding the catalogue and stock tables of the Flyway schema
+ */
+class CatalogueReactiveRoutesTest {
+
+    private static final String[] SCHEMA = {
+            "DROP ALL OBJECTS",
+            "CREATE TABLE categorie_produit (id_categorie_produit BIGINT PRIMARY KEY, code_categorie VARCHAR(255),"
+                    + " libelle_categorie VARCHAR(255))",
+            "CREATE TABLE stock (id_stock BIGINT PRIMARY KEY, libelle_stock VARCHAR(255), qte INTEGER,"
+                    + " qte_min INTEGER, en_rouge BOOLEAN NOT NULL DEFAULT FALSE)",
+            "CREATE TABLE produit (id_produit BIGINT PRIMARY KEY, code_produit VARCHAR(255), date_creation DATE,"
+                    + " date_derniere_modification DATE, libelle_produit VARCHAR(255), prix BIGINT NOT NULL,"
+                    + " categorie_produit_id_categorie_produit BIGINT, stock_id_stock BIGINT)",
+            "INSERT INTO categorie_produit VALUES (1, 'ELEC', 'Electronique'), (2, 'MEUB', 'Meubles')",
+            "INSERT INTO stock VALUES (1, 'Entrepot A', 50, 10, FALSE), (2, 'Entrepot B', 3, 10, TRUE)",
+            "INSERT INTO produit VALUES (1, 'P1', DATE '2024-01-15', NULL, 'Clavier', 25500, 1, 1),"
+                    + " (2, 'P2', DATE '2024-02-01', NULL, 'Souris', 12000, 1, 2),"
+                    + " (3, 'P3', DATE '2024-03-10', NULL, 'Chaise', 99990, 2, NULL)"
+    };
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///catalogue;DB_CLOSE_DELAY=-1"));
+        Flux.fromArray(SCHEMA)
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        client = WebTestClient.bindToRouterFunction(
+                CatalogueReactiveRoutes.routes(new CatalogueReactiveRepository(databaseClient), 2))
+                .build();
+    }
+
+    @Test
+    void testRetrieveAllProduits_StreamsNdjsonInIdOrder() {
+        List<ProduitDTO> produits = client.get().uri("/produit/retrieve-all-produits")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ProduitDTO.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(produits);
+        assertEquals(3, produits.size());
+        assertEquals("Clavier", produits.get(0).getLibelleProduit());
+        assertEquals(25.5, produits.get(0).getPrix(), 1e-9);
+        assertEquals(99.99, produits.get(2).getPrix(), 1e-9);
+    }
+
+    @Test
+    void testRetrieveProduit_FoundNotFoundAndInvalidId() {
+        client.get().uri("/produit/retrieve-produit/2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.codeProduit").isEqualTo("P2")
+                .jsonPath("$.prix").isEqualTo(12.0);
+
+        client.get().uri("/produit/retrieve-produit/42").exchange().expectStatus().isNotFound();
+        client.get().uri("/produit/retrieve-produit/abc").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testRetrieveProduitsByCategorie() {
+        client.get().uri("/produit/retrieve-produits-by-categorie/1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProduitDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void testStocksAndCategories() {
+        List<StockDTO> stocks = client.get().uri("/stock/retrieve-all-stocks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(StockDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(stocks);
+        assertEquals(2, stocks.size());
+
+        List<StockDTO> enRouge = client.get().uri("/stock/retrieve-stocks-en-rouge")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectBodyList(StockDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(enRouge);
+        assertEquals(1, enRouge.size());
+        assertEquals(2L, enRouge.get(0).getIdStock());
+
+        client.get().uri("/stock/retrieve-stock/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StockDTO.class)
+                .value(stock -> assertEquals(50, stock.getQte()));
+
+        client.get().uri("/categorieProduit/retrieve-all-categorieProduit")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CategorieProduitDTO.class)
+                .hasSize(2);
+    }
+}
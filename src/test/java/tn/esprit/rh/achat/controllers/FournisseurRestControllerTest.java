@@ -17,7 +17,6 @@ import tn.esprit.rh.achat.services.IFournisseurService;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -70,15 +69,13 @@ class FournisseurRestControllerTest {
     @Test
     void testGetFournisseurs_Success() throws Exception {
         // Arrange
-        List<Fournisseur> fournisseurs = Arrays.asList(fournisseur);
         FournisseurDTO dto = new FournisseurDTO();
         dto.setIdFournisseur(1L);
         dto.setCode("FRN-CTRL-001");
         dto.setLibelle("Controller Test Fournisseur");
         dto.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
         
-        when(fournisseurService.retrieveAllFournisseurs()).thenReturn(fournisseurs);
-        when(dtoMapper.toFournisseurDTOList(fournisseurs)).thenReturn(Arrays.asList(dto));
+        when(fournisseurService.retrieveAllFournisseurs()).thenReturn(Arrays.asList(dto));
 
         // Act & Assert
         mockMvc.perform(get("/fournisseur/retrieve-all-fournisseurs"))
@@ -90,15 +87,13 @@ class FournisseurRestControllerTest {
                 .andExpect(jsonPath("$[0].categorieFournisseur", is("ORDINAIRE")));
 
         verify(fournisseurService, times(1)).retrieveAllFournisseurs();
-        verify(dtoMapper, times(1)).toFournisseurDTOList(fournisseurs);
+        verifyNoInteractions(dtoMapper);
     }
 
     @Test
     void testGetFournisseurs_EmptyList() throws Exception {
         // Arrange
-        List<Fournisseur> emptyList = Arrays.asList();
-        when(fournisseurService.retrieveAllFournisseurs()).thenReturn(emptyList);
-        when(dtoMapper.toFournisseurDTOList(emptyList)).thenReturn(Arrays.asList());
+        when(fournisseurService.retrieveAllFournisseurs()).thenReturn(Arrays.asList());
 
         // Act & Assert
         mockMvc.perform(get("/fournisseur/retrieve-all-fournisseurs"))
@@ -107,7 +102,6 @@ class FournisseurRestControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
 
         verify(fournisseurService, times(1)).retrieveAllFournisseurs();
-        verify(dtoMapper, times(1)).toFournisseurDTOList(emptyList);
     }
 
     @Test
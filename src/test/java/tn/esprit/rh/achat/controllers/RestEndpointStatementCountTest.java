@@ -0,0 +1,359 @@
+package tn.esprit.rh.achat.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.rh.achat.entities.CategorieFournisseur;
+import tn.esprit.rh.achat.entities.DetailFournisseur;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Fournisseur;
+import tn.esprit.rh.achat.entities.Operateur;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.entities.SecteurActivite;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.util.Money;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * SQL statement-count regression guard for every *RestController endpoint
+ * Each endpoint is called twice against H2, once on a small data set and once on a
+ * ten times larger one; the number of statements must not grow with the data size.
+ * The FournisseurRestController endpoints must also stay within a fixed budget.
+ * A failure lists the statements of both runs.
+ *
+ * Requests run in their own transactions, as in production, so the asynchronous
+ * exports see the seeded rows; the database is private to this context.
+ * Sequence calls (pooled ids, one per 50 rows) are not counted.
+ * /stock/alerts/stream (SSE, no SQL) is not covered.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;MODE=MySQL",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "tn.esprit.rh.achat.controllers.SqlStatementRecorder" })
+@AutoConfigureMockMvc
+class RestEndpointStatementCountTest {
+
+    private static final int PETIT = 3;
+    private static final int GRAND = 30;
+    private static final Date JOUR = Date.from(LocalDate.of(2024, 3, 15).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    /** nombre maximal de requêtes SQL, séquences non comprises */
+    private static final Map<String, Integer> BUDGETS = new LinkedHashMap<>();
+
+    static {
+        BUDGETS.put("fournisseur/retrieve-all-fournisseurs", 1);
+        BUDGETS.put("fournisseur/retrieve-fournisseurs-page", 1);
+        BUDGETS.put("fournisseur/retrieve-fournisseur", 1);
+        // fournisseur + détail
+        BUDGETS.put("fournisseur/add-fournisseur", 2);
+        // sans chargement du détail
+        BUDGETS.put("fournisseur/modify-fournisseur", 3);
+        // fournisseur, secteur, secteurs du fournisseur, insertion dans la table d'association
+        BUDGETS.put("fournisseur/assignSecteurActiviteToFournisseur", 4);
+        // fournisseur, détail (suppression en cascade) et son côté inverse, association, fournisseur, détail
+        BUDGETS.put("fournisseur/remove-fournisseur", 6);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** identifiants d'un jeu de données de taille n */
+    private static class Jeu {
+        Fournisseur fournisseur;
+        Fournisseur sansFacture;
+        SecteurActivite secteurLibre;
+        Facture facture;
+        Facture factureLibre;
+        Operateur operateur;
+        Stock stock;
+        Stock stockVide;
+        Produit produitLibre;
+        List<Produit> produits = new ArrayList<>();
+        Reglement reglement;
+    }
+
+    @Test
+    void testStatementCount_DoesNotGrowWithDataSize() throws Exception {
+        Map<String, List<String>> petit = run(seed(PETIT));
+        Jeu jeu = seed(GRAND);
+        Map<String, List<String>> grand = run(jeu);
+
+        StringBuilder failures = new StringBuilder();
+        for (Map.Entry<String, List<String>> endpoint : petit.entrySet()) {
+            List<String> avant = endpoint.getValue();
+            List<String> apres = grand.get(endpoint.getKey());
+            if (apres.size() > avant.size()) {
+                failures.append("\n").append(endpoint.getKey()).append(" : ").append(avant.size())
+                        .append(" requêtes SQL pour ").append(PETIT).append(", ").append(apres.size())
+                        .append(" pour ").append(GRAND)
+                        .append("\n  -- ").append(PETIT).append(" :").append(format(avant))
+                        .append("\n  -- ").append(GRAND).append(" :").append(format(apres));
+            }
+        }
+        assertTrue(failures.length() == 0, "Nombre de requêtes dépendant du volume :" + failures);
+
+        for (Map.Entry<String, Integer> budget : BUDGETS.entrySet()) {
+            List<String> sql = grand.get(budget.getKey());
+            assertTrue(sql.size() <= budget.getValue(), budget.getKey() + " : " + sql.size()
+                    + " requêtes SQL, budget " + budget.getValue() + format(sql));
+        }
+        // modify-fournisseur garde le détail et les deux secteurs, assign en ajoute un troisième
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Fournisseur modifie = entityManager.find(Fournisseur.class, jeu.fournisseur.getIdFournisseur());
+            assertEquals("FRN-MOD", modifie.getCode());
+            assertNotNull(modifie.getDetailFournisseur());
+            assertEquals(3, modifie.getSecteurActivites().size());
+        });
+    }
+
+    private Map<String, RequestBuilder> endpoints(Jeu jeu) {
+        Map<String, RequestBuilder> endpoints = new LinkedHashMap<>();
+        long idFournisseur = jeu.fournisseur.getIdFournisseur();
+        long idFacture = jeu.facture.getIdFacture();
+
+        endpoints.put("fournisseur/retrieve-all-fournisseurs", get("/fournisseur/retrieve-all-fournisseurs"));
+        endpoints.put("fournisseur/retrieve-fournisseurs-page", get("/fournisseur/retrieve-fournisseurs-page").param("size", "10"));
+        endpoints.put("fournisseur/retrieve-fournisseur", get("/fournisseur/retrieve-fournisseur/{id}", idFournisseur));
+        endpoints.put("fournisseur/add-fournisseur", post("/fournisseur/add-fournisseur")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"code\":\"FRN-NEW\",\"libelle\":\"Nouveau\",\"categorieFournisseur\":\"ORDINAIRE\"}"));
+        endpoints.put("fournisseur/modify-fournisseur", put("/fournisseur/modify-fournisseur")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"idFournisseur\":" + idFournisseur
+                        + ",\"code\":\"FRN-MOD\",\"libelle\":\"Modifié\",\"categorieFournisseur\":\"CONVENTIONNE\"}"));
+        endpoints.put("fournisseur/assignSecteurActiviteToFournisseur", put("/fournisseur/assignSecteurActiviteToFournisseur/{s}/{f}",
+                jeu.secteurLibre.getIdSecteurActivite(), idFournisseur));
+        endpoints.put("fournisseur/remove-fournisseur", delete("/fournisseur/remove-fournisseur/{id}",
+                jeu.sansFacture.getIdFournisseur()));
+
+        endpoints.put("produit/retrieve-all-produits", get("/produit/retrieve-all-produits"));
+        endpoints.put("produit/retrieve-produits-page", get("/produit/retrieve-produits-page").param("size", "10"));
+        endpoints.put("produit/retrieve-produit", get("/produit/retrieve-produit/{id}", jeu.produits.get(0).getIdProduit()));
+        endpoints.put("produit/add-produit", post("/produit/add-produit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"codeProduit\":\"P-NEW\",\"libelleProduit\":\"Nouveau\",\"prix\":12.5}"));
+        endpoints.put("produit/modify-produit", put("/produit/modify-produit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"idProduit\":" + jeu.produits.get(1).getIdProduit()
+                        + ",\"codeProduit\":\"P-MOD\",\"libelleProduit\":\"Modifié\",\"prix\":11.0}"));
+        endpoints.put("produit/assignProduitToStock", put("/produit/assignProduitToStock/{p}/{s}",
+                jeu.produitLibre.getIdProduit(), jeu.stock.getIdStock()));
+
+        endpoints.put("stock/retrieve-all-stocks", get("/stock/retrieve-all-stocks"));
+        endpoints.put("stock/retrieve-stocks-page", get("/stock/retrieve-stocks-page").param("size", "10"));
+        endpoints.put("stock/retrieve-stock", get("/stock/retrieve-stock/{id}", jeu.stock.getIdStock()));
+        endpoints.put("stock/add-stock", post("/stock/add-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"libelleStock\":\"S-NEW\",\"qte\":10,\"qteMin\":5}"));
+        endpoints.put("stock/modify-stock", put("/stock/modify-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"idStock\":" + jeu.stock.getIdStock() + ",\"libelleStock\":\"S-MOD\",\"qte\":1,\"qteMin\":5}"));
+        endpoints.put("stock/retrieve-stocks-en-rouge", get("/stock/retrieve-stocks-en-rouge"));
+        endpoints.put("stock/retrieveStatusStock", get("/stock/retrieveStatusStock"));
+        endpoints.put("stock/reorder-suggestions", get("/stock/reorder-suggestions"));
+        endpoints.put("stock/remove-stock", delete("/stock/remove-stock/{id}", jeu.stockVide.getIdStock()));
+
+        endpoints.put("reglement/retrieve-all-reglements", get("/reglement/retrieve-all-reglements"));
+        endpoints.put("reglement/retrieve-reglements-page", get("/reglement/retrieve-reglements-page").param("size", "10"));
+        endpoints.put("reglement/retrieve-reglement", get("/reglement/retrieve-reglement/{id}", jeu.reglement.getIdReglement()));
+        endpoints.put("reglement/retrieveReglementByFacture", get("/reglement/retrieveReglementByFacture/{id}", idFacture));
+        endpoints.put("reglement/getChiffreAffaireEntreDeuxDate", get("/reglement/getChiffreAffaireEntreDeuxDate/{d}/{f}",
+                "2024-01-01", "2024-12-31"));
+        endpoints.put("reglement/export", get("/reglement/export").param("format", "csv"));
+        endpoints.put("reglement/add-reglement", post("/reglement/add-reglement")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"montantPaye\":5.0,\"montantRestant\":0.0,\"payee\":true,\"dateReglement\":\"2024-03-15\"}"));
+
+        endpoints.put("facture/retrieve-all-factures", get("/facture/retrieve-all-factures"));
+        endpoints.put("facture/retrieve-factures-page", get("/facture/retrieve-factures-page").param("size", "10"));
+        endpoints.put("facture/retrieve-facture", get("/facture/retrieve-facture/{id}", idFacture));
+        endpoints.put("facture/getFactureByFournisseur", get("/facture/getFactureByFournisseur/{id}", idFournisseur));
+        endpoints.put("facture/export", get("/facture/export").param("format", "ndjson"));
+        endpoints.put("facture/export?idFournisseur", get("/facture/export")
+                .param("format", "csv").param("idFournisseur", String.valueOf(idFournisseur)));
+        endpoints.put("facture/pourcentageRecouvrement", get("/facture/pourcentageRecouvrement/{d}/{f}",
+                "2024-01-01", "2024-12-31"));
+        endpoints.put("facture/add-facture", post("/facture/add-facture")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"montantFacture\":10.0,\"montantRemise\":0.0,\"archivee\":false,\"dateCreationFacture\":\"2024-03-15\"}"));
+        endpoints.put("facture/add-factures", post("/facture/add-factures")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"idFournisseur\":" + idFournisseur + ",\"dateCreationFacture\":\"2024-03-15\",\"detailsFacture\":["
+                        + jeu.produits.stream()
+                                .map(p -> "{\"idProduit\":" + p.getIdProduit() + ",\"qteCommandee\":2,\"pourcentageRemise\":10}")
+                                .collect(Collectors.joining(","))
+                        + "]}]"));
+        endpoints.put("facture/assignOperateurToFacture", put("/facture/assignOperateurToFacture/{o}/{f}",
+                jeu.operateur.getIdOperateur(), jeu.factureLibre.getIdFacture()));
+        endpoints.put("facture/cancel-facture", put("/facture/cancel-facture/{id}", idFacture));
+        endpoints.put("facture/cancel-factures", put("/facture/cancel-factures")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + jeu.factureLibre.getIdFacture() + "," + idFacture + "]"));
+        endpoints.put("facture/cancel-factures/fournisseur", put("/facture/cancel-factures/fournisseur/{id}", idFournisseur)
+                .param("startDate", "2024-01-01").param("endDate", "2024-12-31"));
+        endpoints.put("facture/archive", post("/facture/archive"));
+        endpoints.put("facture/retrieve-facture?includeArchive", get("/facture/retrieve-facture/{id}", idFacture)
+                .param("includeArchive", "true"));
+        endpoints.put("facture/getFactureByFournisseur?includeArchive", get("/facture/getFactureByFournisseur/{id}", idFournisseur)
+                .param("archivee", "true").param("includeArchive", "true"));
+        endpoints.put("reglement/retrieveReglementByFacture?includeArchive", get("/reglement/retrieveReglementByFacture/{id}", idFacture)
+                .param("includeArchive", "true"));
+        endpoints.put("facture/recouvrement/rebuild", post("/facture/recouvrement/rebuild"));
+        return endpoints;
+    }
+
+    /** requêtes SQL émises par chaque endpoint, dans l'ordre d'appel */
+    private Map<String, List<String>> run(Jeu jeu) throws Exception {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (Map.Entry<String, RequestBuilder> endpoint : endpoints(jeu).entrySet()) {
+            SqlStatementRecorder.start();
+            MvcResult result = mockMvc.perform(endpoint.getValue()).andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                result = mockMvc.perform(asyncDispatch(result)).andReturn();
+            }
+            List<String> sql = SqlStatementRecorder.stop().stream()
+                    .filter(s -> !s.toLowerCase().contains("next value for"))
+                    .collect(Collectors.toList());
+            int status = result.getResponse().getStatus();
+            assertTrue(status < 300, endpoint.getKey() + " : HTTP " + status);
+            statements.put(endpoint.getKey(), sql);
+        }
+        return statements;
+    }
+
+    private Jeu seed(int n) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Jeu jeu = new Jeu();
+            Set<SecteurActivite> secteurs = new HashSet<>();
+            for (int i = 0; i < 2; i++) {
+                secteurs.add(secteur("SEC" + n + "-" + i));
+            }
+            jeu.secteurLibre = secteur("SEC" + n + "-LIBRE");
+
+            // une facture par fournisseur, toutes affectées à l'opérateur
+            Set<Facture> facturesOperateur = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                Fournisseur f = fournisseur("FRN" + n + "-" + i, new HashSet<>(secteurs));
+                if (i == 0) {
+                    jeu.fournisseur = f;
+                }
+                facturesOperateur.add(facture(f));
+            }
+            jeu.sansFacture = fournisseur("FRN" + n + "-SANS-FACTURE", new HashSet<>(secteurs));
+            jeu.operateur = new Operateur(null, "Op" + n, "Erateur", "secret", facturesOperateur);
+            entityManager.persist(jeu.operateur);
+
+            // n factures de plus pour le fournisseur principal, n règlements le même jour pour l'une d'elles
+            for (int i = 0; i < n; i++) {
+                facture(jeu.fournisseur);
+            }
+            jeu.facture = facture(jeu.fournisseur);
+            for (int i = 0; i < n; i++) {
+                Reglement r = new Reglement();
+                r.setMontantPaye(Money.of(10));
+                r.setPayee(false);
+                r.setDateReglement(JOUR);
+                r.setFacture(jeu.facture);
+                entityManager.persist(r);
+                jeu.reglement = r;
+            }
+            jeu.factureLibre = facture(jeu.fournisseur);
+
+            jeu.stock = stock("STK" + n, 100);
+            for (int i = 0; i < n; i++) {
+                jeu.produits.add(produit("PRD" + n + "-" + i, jeu.stock));
+            }
+            jeu.stockVide = stock("STK" + n + "-VIDE", 0);
+            jeu.produitLibre = produit("PRD" + n + "-LIBRE", null);
+            return jeu;
+        });
+    }
+
+    private SecteurActivite secteur(String code) {
+        SecteurActivite secteur = new SecteurActivite();
+        secteur.setCodeSecteurActivite(code);
+        secteur.setLibelleSecteurActivite("Secteur " + code);
+        entityManager.persist(secteur);
+        return secteur;
+    }
+
+    private Fournisseur fournisseur(String code, Set<SecteurActivite> secteurs) {
+        DetailFournisseur detail = new DetailFournisseur();
+        detail.setEmail(code.toLowerCase() + "@achat.tn");
+        Fournisseur f = new Fournisseur();
+        f.setCode(code);
+        f.setLibelle("Fournisseur " + code);
+        f.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+        f.setDetailFournisseur(detail);
+        f.setSecteurActivites(secteurs);
+        entityManager.persist(f);
+        return f;
+    }
+
+    private Facture facture(Fournisseur fournisseur) {
+        Facture facture = new Facture();
+        facture.setMontantFacture(Money.of(100));
+        facture.setDateCreationFacture(JOUR);
+        facture.setArchivee(false);
+        facture.setFournisseur(fournisseur);
+        entityManager.persist(facture);
+        return facture;
+    }
+
+    private Stock stock(String libelle, int qte) {
+        Stock stock = new Stock();
+        stock.setLibelleStock(libelle);
+        stock.setQte(qte);
+        stock.setQteMin(10);
+        entityManager.persist(stock);
+        return stock;
+    }
+
+    private Produit produit(String code, Stock stock) {
+        Produit produit = new Produit();
+        produit.setCodeProduit(code);
+        produit.setLibelleProduit("Produit " + code);
+        produit.setPrix(Money.of(10));
+        produit.setDateCreation(JOUR);
+        produit.setStock(stock);
+        entityManager.persist(produit);
+        return produit;
+    }
+
+    private static String format(List<String> statements) {
+        StringJoiner joiner = new StringJoiner("\n     ", "\n     ", "");
+        statements.forEach(joiner::add);
+        return joiner.toString();
+    }
+}
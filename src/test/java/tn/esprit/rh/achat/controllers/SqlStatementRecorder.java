@@ -0,0 +1,40 @@
+package tn.esprit.rh.achat.controllers;
+
+import tn.esprit.rh.achat.util.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares while recording is on
+ * Registered through hibernate.session_factory.statement_inspector; the buffer is
+ * static so statements issued on other threads (async exports) are captured too.
+ * Extends SqlStatementCounter (only one inspector per session factory) so the
+ * service metrics keep counting in these tests
+ */
+public class SqlStatementRecorder extends SqlStatementCounter {
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+    private static volatile boolean recording;
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            STATEMENTS.add(sql);
+        }
+        return super.inspect(sql);
+    }
+
+    public static void start() {
+        STATEMENTS.clear();
+        recording = true;
+    }
+
+    public static List<String> stop() {
+        recording = false;
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+}
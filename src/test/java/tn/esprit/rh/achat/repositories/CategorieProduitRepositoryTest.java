@@ -0,0 +1,79 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.rh.achat.entities.CategorieProduit;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for CategorieProduitRepository
+ * Checks that reference data is served from the Hibernate second-level and query caches
+ * Not transactional: each repository call commits, as in production, so the caches are
+ * filled and read (an uncommitted insert makes Hibernate bypass them)
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategorieProduitRepositoryTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategorieProduitRepository categorieProduitRepository;
+
+    private Statistics statistics;
+    private Long idCategorie;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        CategorieProduit categorie = new CategorieProduit();
+        categorie.setCodeCategorie("ELEC");
+        categorie.setLibelleCategorie("Electronique");
+        idCategorie = categorieProduitRepository.save(categorie).getIdCategorieProduit();
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categorieProduitRepository.deleteAll();
+    }
+
+    @Test
+    void testFindById_SecondCallHitsSecondLevelCache() {
+        // Act
+        categorieProduitRepository.findById(idCategorie);
+        CategorieProduit categorie = categorieProduitRepository.findById(idCategorie).orElse(null);
+
+        // Assert
+        assertNotNull(categorie);
+        assertEquals("ELEC", categorie.getCodeCategorie());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testFindAll_SecondCallHitsQueryCache() {
+        // Act
+        categorieProduitRepository.findAll();
+        int size = categorieProduitRepository.findAll().size();
+
+        // Assert
+        assertEquals(1, size);
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+}
@@ -0,0 +1,161 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
+import tn.esprit.rh.achat.dto.ProduitDTO;
+import tn.esprit.rh.achat.dto.ReglementDTO;
+import tn.esprit.rh.achat.dto.StockDTO;
+import tn.esprit.rh.achat.entities.*;
+import tn.esprit.rh.achat.util.DTOMapper;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the repository DTO projections
+ * Each projection must return what DTOMapper builds from the entity, without loading any entity
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DTOProjectionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FactureRepository factureRepository;
+
+    @Autowired
+    private ReglementRepository reglementRepository;
+
+    @Autowired
+    private ProduitRepository produitRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private FournisseurRepository fournisseurRepository;
+
+    private final DTOMapper dtoMapper = new DTOMapper();
+    private Statistics statistics;
+    private Facture facture;
+    private Reglement reglement;
+    private Produit produit;
+    private Stock stock;
+    private Fournisseur fournisseur;
+
+    @BeforeEach
+    void setUp() {
+        Date date = new Date(1_700_000_000_000L);
+
+        fournisseur = new Fournisseur();
+        fournisseur.setCode("FRN-001");
+        fournisseur.setLibelle("Fournisseur");
+        fournisseur.setCategorieFournisseur(CategorieFournisseur.CONVENTIONNE);
+        fournisseur.setDetailFournisseur(new DetailFournisseur());
+        entityManager.persist(fournisseur);
+
+        facture = new Facture();
+        facture.setMontantFacture(123_456_789L);
+        facture.setMontantRemise(1L);
+        facture.setDateCreationFacture(date);
+        facture.setArchivee(false);
+        facture.setFournisseur(fournisseur);
+        entityManager.persist(facture);
+
+        reglement = new Reglement();
+        reglement.setMontantPaye(100_001L);
+        reglement.setMontantRestant(23_356_788L);
+        reglement.setDateReglement(date);
+        reglement.setPayee(false);
+        reglement.setFacture(facture);
+        entityManager.persist(reglement);
+
+        produit = new Produit();
+        produit.setCodeProduit("P-001");
+        produit.setLibelleProduit("Produit");
+        produit.setPrix(9_999L);
+        produit.setDateCreation(date);
+        entityManager.persist(produit);
+
+        stock = new Stock();
+        stock.setLibelleStock("Stock");
+        stock.setQte(5);
+        stock.setQteMin(10);
+        entityManager.persist(stock);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFactureProjection_MatchesMapper() {
+        // Act
+        statistics.clear();
+        List<FactureDTO> all = factureRepository.findAllDTO();
+        List<FactureDTO> page = factureRepository.findDTOPage(0L, null, null, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(0, statistics.getEntityLoadCount());
+        FactureDTO attendu = dtoMapper.toDTO(entityManager.find(Facture.class, facture.getIdFacture()));
+        for (FactureDTO dto : List.of(all.get(0), page.get(0))) {
+            assertEquals(attendu.getIdFacture(), dto.getIdFacture());
+            assertEquals(attendu.getMontantFacture(), dto.getMontantFacture());
+            assertEquals(attendu.getMontantRemise(), dto.getMontantRemise());
+            assertEquals(attendu.getDateCreationFacture(), dto.getDateCreationFacture());
+            assertEquals(attendu.getArchivee(), dto.getArchivee());
+        }
+    }
+
+    @Test
+    void testReglementProjection_MatchesMapper() {
+        // Act
+        statistics.clear();
+        List<ReglementDTO> all = reglementRepository.findAllDTO();
+        List<ReglementDTO> parFacture = reglementRepository.findDTOByFacture(facture.getIdFacture());
+
+        // Assert
+        assertEquals(0, statistics.getEntityLoadCount());
+        ReglementDTO attendu = dtoMapper.toDTO(entityManager.find(Reglement.class, reglement.getIdReglement()));
+        for (ReglementDTO dto : List.of(all.get(0), parFacture.get(0))) {
+            assertEquals(attendu.getIdReglement(), dto.getIdReglement());
+            assertEquals(attendu.getMontantPaye(), dto.getMontantPaye());
+            assertEquals(attendu.getMontantRestant(), dto.getMontantRestant());
+            assertEquals(attendu.getDateReglement(), dto.getDateReglement());
+            assertEquals(attendu.getPayee(), dto.getPayee());
+        }
+    }
+
+    @Test
+    void testProduitStockFournisseurProjections_MatchMapper() {
+        // Act
+        statistics.clear();
+        ProduitDTO produitDTO = produitRepository.findDTOPage(0L, null, null, PageRequest.of(0, 10)).get(0);
+        StockDTO stockDTO = stockRepository.findAllDTO().get(0);
+        FournisseurDTO fournisseurDTO = fournisseurRepository.findAllDTO().get(0);
+
+        // Assert - no Fournisseur hydrated, hence no DetailFournisseur either
+        assertEquals(0, statistics.getEntityLoadCount());
+        ProduitDTO produitAttendu = dtoMapper.toDTO(entityManager.find(Produit.class, produit.getIdProduit()));
+        assertEquals(produitAttendu.getPrix(), produitDTO.getPrix());
+        assertEquals(produitAttendu.getCodeProduit(), produitDTO.getCodeProduit());
+        assertEquals(produitAttendu.getDateCreation(), produitDTO.getDateCreation());
+        assertEquals(stock.getIdStock(), stockDTO.getIdStock());
+        assertEquals(5, stockDTO.getQte());
+        assertEquals(10, stockDTO.getQteMin());
+        assertEquals(fournisseur.getIdFournisseur(), fournisseurDTO.getIdFournisseur());
+        assertEquals(CategorieFournisseur.CONVENTIONNE, fournisseurDTO.getCategorieFournisseur());
+    }
+}
@@ -0,0 +1,56 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import tn.esprit.rh.achat.entities.DetailFacture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for DetailFactureRepository
+ * Checks that pooled id allocation lets Hibernate batch the inserts
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DetailFactureRepositoryTest {
+
+    private static final int NB_LIGNES = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DetailFactureRepository detailFactureRepository;
+
+    @Test
+    void testSaveAll_InsertsAreBatched() {
+        // Arrange
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        List<DetailFacture> lignes = new ArrayList<>();
+        for (int i = 0; i < NB_LIGNES; i++) {
+            DetailFacture ligne = new DetailFacture();
+            ligne.setQteCommandee(i + 1);
+            ligne.setPourcentageRemise(0);
+            ligne.setPrixTotalDetail(10000L);
+            lignes.add(ligne);
+        }
+        statistics.clear();
+
+        // Act
+        detailFactureRepository.saveAll(lignes);
+        entityManager.flush();
+
+        // Assert - 1000 rows, but only ~20 id allocations and ~20 insert batches
+        assertEquals(NB_LIGNES, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 100,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(NB_LIGNES, detailFactureRepository.count());
+    }
+}
@@ -0,0 +1,126 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.entities.CategorieFournisseur;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Fournisseur;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for FactureRepository
+ * Tests the keyset-paginated factures-by-fournisseur queries
+ */
+@DataJpaTest
+class FactureRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FactureRepository factureRepository;
+
+    private Fournisseur fournisseur;
+    private Fournisseur autre;
+    private List<Long> attendus;
+
+    @BeforeEach
+    void setUp() {
+        fournisseur = fournisseur("FRN-A");
+        autre = fournisseur("FRN-B");
+
+        // ordre attendu : date décroissante, id décroissant, factures sans date en dernier
+        Facture sansDate1 = facture(fournisseur, null, false);
+        Facture mars1 = facture(fournisseur, "2024-03-01", false);
+        Facture janvier = facture(fournisseur, "2024-01-15", false);
+        Facture mars2 = facture(fournisseur, "2024-03-01", false);
+        Facture sansDate2 = facture(fournisseur, null, false);
+        Facture mai = facture(fournisseur, "2024-05-20", false);
+        Facture mars3 = facture(fournisseur, "2024-03-01", false);
+        facture(fournisseur, "2024-04-01", true);
+        facture(autre, "2024-03-01", false);
+        entityManager.flush();
+        entityManager.clear();
+
+        attendus = Arrays.asList(mai.getIdFacture(), mars3.getIdFacture(), mars2.getIdFacture(),
+                mars1.getIdFacture(), janvier.getIdFacture(), sansDate2.getIdFacture(), sansDate1.getIdFacture());
+    }
+
+    private Fournisseur fournisseur(String code) {
+        Fournisseur f = new Fournisseur();
+        f.setCode(code);
+        f.setLibelle("Fournisseur " + code);
+        f.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+        return entityManager.persist(f);
+    }
+
+    private Facture facture(Fournisseur f, String date, boolean archivee) {
+        Facture facture = new Facture();
+        facture.setFournisseur(f);
+        facture.setArchivee(archivee);
+        facture.setDateCreationFacture(date == null ? null : Date.valueOf(date));
+        return entityManager.persist(facture);
+    }
+
+    /** même choix de requête que FactureServiceImpl.getFacturesByFournisseur */
+    private List<FactureDTO> page(FactureDTO apres, int taille) {
+        PageRequest page = PageRequest.of(0, taille);
+        Long id = fournisseur.getIdFournisseur();
+        if (apres == null) {
+            return factureRepository.findDTOByFournisseur(id, false, null, null, page);
+        }
+        if (apres.getDateCreationFacture() == null) {
+            return factureRepository.findDTOByFournisseurSansDateAfter(id, false, apres.getIdFacture(), page);
+        }
+        return factureRepository.findDTOByFournisseurAfter(id, false, null, null, apres.getDateCreationFacture(),
+                apres.getIdFacture(), page);
+    }
+
+    @Test
+    void testFindDTOByFournisseur_KeysetWalkVisitsEachFactureOnce() {
+        // Act - pages of 2 across equal dates and the undated tail
+        List<Long> lus = new ArrayList<>();
+        List<FactureDTO> rows = page(null, 2);
+        while (!rows.isEmpty()) {
+            rows.forEach(f -> lus.add(f.getIdFacture()));
+            rows = page(rows.get(rows.size() - 1), 2);
+        }
+
+        // Assert
+        assertEquals(attendus, lus);
+    }
+
+    @Test
+    void testFindDTOByFournisseur_ArchivedSwitch() {
+        // Act
+        List<FactureDTO> archivees = factureRepository.findDTOByFournisseur(fournisseur.getIdFournisseur(), true,
+                null, null, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, archivees.size());
+        assertTrue(archivees.get(0).getArchivee());
+    }
+
+    @Test
+    void testFindDTOByFournisseur_DateRange() {
+        // Act
+        List<FactureDTO> rows = factureRepository.findDTOByFournisseur(fournisseur.getIdFournisseur(), false,
+                Date.valueOf("2024-02-01"), Date.valueOf(LocalDate.of(2024, 3, 31)), PageRequest.of(0, 10));
+
+        // Assert - only the three March factures, undated ones excluded
+        assertEquals(attendus.subList(1, 4), rows.stream().map(FactureDTO::getIdFacture).collect(Collectors.toList()));
+    }
+}
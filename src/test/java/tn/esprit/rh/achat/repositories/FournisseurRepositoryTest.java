@@ -1,5 +1,6 @@
 package tn.esprit.rh.achat.repositories;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -207,5 +208,33 @@ class FournisseurRepositoryTest {
         // Assert
         assertFalse(exists);
     }
-}
 
+    @Test
+    void testFindById_DetailIsLazy() {
+        // Arrange
+        Long id = entityManager.persistAndFlush(fournisseur).getIdFournisseur();
+        entityManager.clear();
+
+        // Act
+        Fournisseur found = fournisseurRepository.findById(id).orElseThrow();
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(found.getDetailFournisseur()));
+    }
+
+    @Test
+    void testFindDetailByIdFournisseur_FetchesDetailGraph() {
+        // Arrange
+        Long id = entityManager.persistAndFlush(fournisseur).getIdFournisseur();
+        entityManager.clear();
+
+        // Act
+        Fournisseur found = fournisseurRepository.findDetailByIdFournisseur(id).orElseThrow();
+
+        // Assert
+        assertTrue(Hibernate.isInitialized(found.getDetailFournisseur()));
+        assertTrue(Hibernate.isInitialized(found.getSecteurActivites()));
+        assertFalse(Hibernate.isInitialized(found.getFactures()));
+        assertEquals("MAT-REPO-001", found.getDetailFournisseur().getMatricule());
+    }
+}
@@ -0,0 +1,261 @@
+package tn.esprit.rh.achat.repositories;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.rh.achat.controllers.SqlStatementRecorder;
+import tn.esprit.rh.achat.entities.*;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plans of the repository queries on the Flyway schema
+ * The migrations run on H2 in MySQL mode with the MySQL dialect; every query is
+ * executed, its SQL recorded and EXPLAINed, and a full scan of one of the large
+ * tables fails the test with the plan. Queries that read a whole table by design
+ * (lists, unfiltered exports, rollup rebuilds) are only executed.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQL5InnoDBDialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "tn.esprit.rh.achat.controllers.SqlStatementRecorder" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    private static final Set<String> GRANDES_TABLES = new HashSet<>(Arrays.asList("facture", "reglement",
+            "detail_facture", "produit", "stock", "fournisseur", "operateur_factures", "recouvrement_journalier",
+            "changement_entite", "facture_archive", "detail_facture_archive", "reglement_archive"));
+    private static final Pattern TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan", Pattern.CASE_INSENSITIVE);
+    private static final Date DEBUT = Date.valueOf("2024-01-01");
+    private static final Date FIN = Date.valueOf("2024-12-31");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private FactureRepository factureRepository;
+    @Autowired
+    private ReglementRepository reglementRepository;
+    @Autowired
+    private FournisseurRepository fournisseurRepository;
+    @Autowired
+    private ProduitRepository produitRepository;
+    @Autowired
+    private StockRepository stockRepository;
+    @Autowired
+    private OperateurRepository operateurRepository;
+    @Autowired
+    private CategorieProduitRepository categorieProduitRepository;
+    @Autowired
+    private SecteurActiviteRepository secteurActiviteRepository;
+    @Autowired
+    private RecouvrementJournalierRepository recouvrementRepository;
+    @Autowired
+    private ChangementEntiteRepository changementEntiteRepository;
+    @Autowired
+    private FactureArchiveRepository factureArchiveRepository;
+    @Autowired
+    private DetailFactureRepository detailFactureRepository;
+    @Autowired
+    private ReglementArchiveRepository reglementArchiveRepository;
+
+    private Fournisseur fournisseur;
+    private Facture facture;
+    private Operateur operateur;
+
+    @BeforeEach
+    void setUp() {
+        operateur = entityManager.persist(new Operateur(null, "Op", "Erateur", "secret", null));
+        for (int i = 0; i < 20; i++) {
+            Fournisseur f = new Fournisseur();
+            f.setCode("FRN" + i);
+            f.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+            fournisseur = entityManager.persist(f);
+            Produit p = new Produit();
+            p.setCodeProduit("PRD" + i);
+            p.setStock(entityManager.persist(new Stock("STK" + i, i, 10)));
+            entityManager.persist(p);
+            for (int j = 0; j < 10; j++) {
+                Facture fa = new Facture();
+                fa.setFournisseur(f);
+                fa.setArchivee(j % 5 == 0);
+                fa.setMontantFacture(1000L * j);
+                fa.setDateCreationFacture(Date.valueOf(LocalDate.of(2024, 1 + j, 1 + i)));
+                facture = entityManager.persist(fa);
+                for (int k = 0; k < 2; k++) {
+                    entityManager.persist(new Reglement(null, 500L, 0L, true, fa.getDateCreationFacture(), fa));
+                    entityManager.persist(new DetailFacture(null, 1 + k, 100L, 0, 0L, p, fa));
+                }
+            }
+            entityManager.persist(new ChangementEntite(null, "Produit", (long) i, "replica", 1_700_000_000_000L + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testRepositoryQueries_NoFullScanOfLargeTables() {
+        PageRequest page = PageRequest.of(0, 50);
+        Long idF = fournisseur.getIdFournisseur();
+        Long idFacture = facture.getIdFacture();
+        LocalDate jour = LocalDate.of(2024, 3, 1);
+
+        Map<String, Runnable> indexees = new LinkedHashMap<>();
+        indexees.put("FactureRepository.getTotalFacturesEntreDeuxDates",
+                () -> factureRepository.getTotalFacturesEntreDeuxDates(DEBUT, FIN));
+        indexees.put("FactureRepository.lockById", () -> factureRepository.lockById(idFacture));
+        indexees.put("FactureRepository.lockFacturesActives",
+                () -> factureRepository.lockFacturesActives(Arrays.asList(idFacture, idFacture - 1)));
+        indexees.put("FactureRepository.lockFacturesActivesByFournisseur",
+                () -> factureRepository.lockFacturesActivesByFournisseur(idF, DEBUT, FIN, 0L, page));
+        indexees.put("FactureRepository.sumFacturesParJourEtFournisseur(ids)",
+                () -> factureRepository.sumFacturesParJourEtFournisseur(Arrays.asList(idFacture, idFacture - 1)));
+        indexees.put("FactureRepository.archiverFactures",
+                () -> factureRepository.archiverFactures(Arrays.asList(idFacture, idFacture - 1)));
+        indexees.put("FactureRepository.lockFacturesArchivees",
+                () -> factureRepository.lockFacturesArchivees(page));
+        indexees.put("FactureArchiveRepository.findDTOByIdFacture",
+                () -> factureArchiveRepository.findDTOByIdFacture(idFacture));
+        indexees.put("FactureArchiveRepository.findDTOByFournisseur",
+                () -> factureArchiveRepository.findDTOByFournisseur(idF, DEBUT, FIN, page));
+        indexees.put("FactureArchiveRepository.findDTOByFournisseurAfter",
+                () -> factureArchiveRepository.findDTOByFournisseurAfter(idF, null, null, FIN, idFacture, page));
+        indexees.put("FactureArchiveRepository.findDTOByFournisseurSansDateAfter",
+                () -> factureArchiveRepository.findDTOByFournisseurSansDateAfter(idF, idFacture, page));
+        indexees.put("ReglementArchiveRepository.findDTOByFacture",
+                () -> reglementArchiveRepository.findDTOByFacture(idFacture));
+        indexees.put("FactureRepository.findDTOPage", () -> factureRepository.findDTOPage(0L, DEBUT, FIN, page));
+        indexees.put("FactureRepository.findDTOByFournisseur",
+                () -> factureRepository.findDTOByFournisseur(idF, false, DEBUT, FIN, page));
+        indexees.put("FactureRepository.findDTOByFournisseurAfter",
+                () -> factureRepository.findDTOByFournisseurAfter(idF, false, null, null, FIN, idFacture, page));
+        indexees.put("FactureRepository.findDTOByFournisseurSansDateAfter",
+                () -> factureRepository.findDTOByFournisseurSansDateAfter(idF, false, idFacture, page));
+        indexees.put("ReglementRepository.retrieveReglementByFacture",
+                () -> reglementRepository.retrieveReglementByFacture(idFacture));
+        indexees.put("ReglementRepository.getChiffreAffaireEntreDeuxDate",
+                () -> reglementRepository.getChiffreAffaireEntreDeuxDate(DEBUT, FIN));
+        indexees.put("ReglementRepository.sumReglementsParJourEtFournisseur(ids)",
+                () -> reglementRepository.sumReglementsParJourEtFournisseur(Arrays.asList(idFacture, idFacture - 1)));
+        indexees.put("ReglementRepository.findDTOPage", () -> reglementRepository.findDTOPage(0L, DEBUT, FIN, page));
+        indexees.put("ReglementRepository.findDTOByFacture", () -> reglementRepository.findDTOByFacture(idFacture));
+        indexees.put("FournisseurRepository.findDTOPage", () -> fournisseurRepository.findDTOPage(0L, page));
+        indexees.put("FournisseurRepository.findDetailByIdFournisseur",
+                () -> fournisseurRepository.findDetailByIdFournisseur(idF));
+        indexees.put("ProduitRepository.findDTOPage", () -> produitRepository.findDTOPage(0L, DEBUT, FIN, page));
+        indexees.put("DetailFactureRepository.streamConsommationParStockEtJour", () -> {
+            try (Stream<?> rows = detailFactureRepository.streamConsommationParStockEtJour(DEBUT, FIN)) {
+                rows.count();
+            }
+        });
+        indexees.put("StockRepository.retrieveStatusStock", () -> stockRepository.retrieveStatusStock());
+        indexees.put("StockRepository.findDTOPage", () -> stockRepository.findDTOPage(0L, page));
+        indexees.put("OperateurRepository.AFFECTER_FACTURE", () -> entityManager.getEntityManager()
+                .createNativeQuery(OperateurRepository.AFFECTER_FACTURE)
+                .setParameter("idOperateur", operateur.getIdOperateur())
+                .setParameter("idFacture", idFacture)
+                .executeUpdate());
+        indexees.put("RecouvrementJournalierRepository.CREER_OU_INCREMENTER", () -> entityManager.getEntityManager()
+                .createNativeQuery(RecouvrementJournalierRepository.CREER_OU_INCREMENTER)
+                .setParameter("id", 1L)
+                .setParameter("jour", jour)
+                .setParameter("idFournisseur", idF)
+                .setParameter("montantFacture", 1L)
+                .setParameter("montantPaye", 0L)
+                .executeUpdate());
+        indexees.put("RecouvrementJournalierRepository.getTotalFacturesEntreDeuxDates",
+                () -> recouvrementRepository.getTotalFacturesEntreDeuxDates(jour, jour.plusDays(30)));
+        indexees.put("RecouvrementJournalierRepository.getTotalPayeEntreDeuxDates",
+                () -> recouvrementRepository.getTotalPayeEntreDeuxDates(jour, jour.plusDays(30)));
+        indexees.put("ChangementEntiteRepository.findChangementsDepuis",
+                () -> changementEntiteRepository.findChangementsDepuis(1_700_000_000_010L, "autre"));
+        indexees.put("ChangementEntiteRepository.purger", () -> changementEntiteRepository.purger(1_700_000_000_005L));
+
+        Map<String, Runnable> lecturesCompletes = new LinkedHashMap<>();
+        lecturesCompletes.put("FactureRepository.findAllDTO", () -> factureRepository.findAllDTO());
+        lecturesCompletes.put("FactureRepository.sumFacturesParJourEtFournisseur",
+                () -> factureRepository.sumFacturesParJourEtFournisseur());
+        lecturesCompletes.put("FactureRepository.streamForExport", () -> {
+            try (Stream<?> rows = factureRepository.streamForExport(null, null, null)) {
+                rows.count();
+            }
+        });
+        lecturesCompletes.put("ReglementRepository.findAllDTO", () -> reglementRepository.findAllDTO());
+        lecturesCompletes.put("ReglementRepository.sumReglementsParJourEtFournisseur",
+                () -> reglementRepository.sumReglementsParJourEtFournisseur());
+        lecturesCompletes.put("ReglementRepository.sumReglementsParJour", () -> reglementRepository.sumReglementsParJour());
+        lecturesCompletes.put("ReglementRepository.streamForExport", () -> {
+            try (Stream<?> rows = reglementRepository.streamForExport(null, null, null)) {
+                rows.count();
+            }
+        });
+        lecturesCompletes.put("FournisseurRepository.findAllDTO", () -> fournisseurRepository.findAllDTO());
+        lecturesCompletes.put("ProduitRepository.findAllDTO", () -> produitRepository.findAllDTO());
+        lecturesCompletes.put("StockRepository.findAllDTO", () -> stockRepository.findAllDTO());
+        lecturesCompletes.put("OperateurRepository.findAll", () -> operateurRepository.findAll());
+        lecturesCompletes.put("CategorieProduitRepository.findAll", () -> categorieProduitRepository.findAll());
+        lecturesCompletes.put("SecteurActiviteRepository.findAll", () -> secteurActiviteRepository.findAll());
+
+        lecturesCompletes.values().forEach(Runnable::run);
+
+        StringBuilder failures = new StringBuilder();
+        for (Map.Entry<String, Runnable> requete : indexees.entrySet()) {
+            SqlStatementRecorder.start();
+            requete.getValue().run();
+            entityManager.flush();
+            List<String> statements = SqlStatementRecorder.stop();
+            assertFalse(statements.isEmpty(), requete.getKey() + " : aucune requête SQL");
+            for (String sql : statements) {
+                String plan = explain(sql);
+                Matcher scan = TABLE_SCAN.matcher(plan);
+                while (scan.find()) {
+                    if (GRANDES_TABLES.contains(scan.group(1).toLowerCase())) {
+                        failures.append("\n").append(requete.getKey()).append(" : parcours complet de ")
+                                .append(scan.group(1)).append("\n  ").append(plan);
+                    }
+                }
+            }
+        }
+        assertTrue(failures.length() == 0, "Requêtes sans index :" + failures);
+    }
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parametres = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametres; i++) {
+                    explain.setNull(i, Types.NULL);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.ChangementEntiteRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for DatabaseInvalidationBus
+ * Two bus instances sharing the change log stand for two replicas
+ */
+@DataJpaTest
+class DatabaseInvalidationBusTest {
+
+    @Autowired
+    private ChangementEntiteRepository changementEntiteRepository;
+
+    private DatabaseInvalidationBus replicaA;
+    private DatabaseInvalidationBus replicaB;
+    private SimpleMeterRegistry meterRegistryB;
+
+    @BeforeEach
+    void setUp() {
+        replicaA = bus(new SimpleMeterRegistry());
+        meterRegistryB = new SimpleMeterRegistry();
+        replicaB = bus(meterRegistryB);
+    }
+
+    private DatabaseInvalidationBus bus(SimpleMeterRegistry meterRegistry) {
+        DatabaseInvalidationBus bus = new DatabaseInvalidationBus();
+        bus.changementEntiteRepository = changementEntiteRepository;
+        bus.meterRegistry = meterRegistry;
+        bus.lookback = Duration.ofSeconds(10);
+        bus.retention = Duration.ofHours(1);
+        bus.registerMetrics();
+        return bus;
+    }
+
+    @Test
+    void testPoll_DeliversChangesFromOtherReplicasOnce() {
+        // Arrange
+        List<Long> produitsA = new ArrayList<>();
+        List<Long> produitsB = new ArrayList<>();
+        List<Long> stocksB = new ArrayList<>();
+        replicaA.subscribe(Produit.class, produitsA::add);
+        replicaB.subscribe(Produit.class, produitsB::add);
+        replicaB.subscribe(Stock.class, stocksB::add);
+
+        // Act
+        replicaA.publish(Produit.class, 7L);
+        replicaA.publish(Stock.class, 3L);
+        replicaA.poll();
+        replicaB.poll();
+        replicaB.poll();
+
+        // Assert
+        assertTrue(produitsA.isEmpty(), "un réplica ne relit pas ses propres changements");
+        assertEquals(List.of(7L), produitsB);
+        assertEquals(List.of(3L), stocksB);
+        Timer propagation = meterRegistryB.find("achat.invalidation.propagation").tag("type", "Produit").timer();
+        assertNotNull(propagation);
+        assertEquals(1, propagation.count());
+    }
+
+    @Test
+    void testPurger_RemovesExpiredChanges() {
+        // Arrange
+        replicaA.publish(Produit.class, 1L);
+        replicaA.retention = Duration.ofMillis(-60_000);
+
+        // Act
+        replicaA.purger();
+
+        // Assert
+        assertEquals(0, changementEntiteRepository.count());
+    }
+}
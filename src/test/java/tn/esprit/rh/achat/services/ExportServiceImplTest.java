@@ -0,0 +1,85 @@
+package tn.esprit.rh.achat.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.ExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportServiceImpl
+ * Tests NDJSON/CSV streaming of facture projections
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @Mock
+    private FactureRepository factureRepository;
+
+    @Mock
+    private ReglementRepository reglementRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    private FactureDTO facture1;
+    private FactureDTO facture2;
+
+    @BeforeEach
+    void setUp() {
+        facture1 = new FactureDTO(1L, 0.0, 120.5, null, null, false);
+        facture2 = new FactureDTO(2L, 0.0, 80.0, null, null, true);
+    }
+
+    @Test
+    void testExportFactures_Ndjson() throws Exception {
+        // Arrange
+        when(factureRepository.streamForExport(isNull(), isNull(), isNull())).thenReturn(Stream.of(facture1, facture2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportFactures(null, null, null, ExportFormat.NDJSON, out);
+
+        // Assert - one JSON document per line
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("idFacture").asLong());
+        assertEquals(120.5, objectMapper.readTree(lines[0]).get("montantFacture").asDouble());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("idFacture").asLong());
+        verifyNoInteractions(reglementRepository);
+    }
+
+    @Test
+    void testExportFactures_Csv() throws Exception {
+        // Arrange
+        when(factureRepository.streamForExport(isNull(), isNull(), eq(5L))).thenReturn(Stream.of(facture1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportFactures(null, null, 5L, ExportFormat.CSV, out);
+
+        // Assert - header + one line
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("idFacture,"));
+        assertTrue(lines[1].startsWith("1,0.0,120.5,"));
+    }
+}
@@ -0,0 +1,138 @@
+package tn.esprit.rh.achat.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.entities.CategorieFournisseur;
+import tn.esprit.rh.achat.entities.DetailFacture;
+import tn.esprit.rh.achat.entities.DetailFactureArchive;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.FactureArchive;
+import tn.esprit.rh.achat.entities.Fournisseur;
+import tn.esprit.rh.achat.entities.Operateur;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.repositories.FactureArchiveRepository;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.ReglementArchiveRepository;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for FactureArchiver
+ * Archived factures and their rows move to the archive tables; active ones stay
+ */
+@DataJpaTest
+class FactureArchiverTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FactureRepository factureRepository;
+
+    @Autowired
+    private FactureArchiveRepository factureArchiveRepository;
+
+    @Autowired
+    private ReglementArchiveRepository reglementArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FactureArchiver archiver;
+    private Fournisseur fournisseur;
+    private Operateur operateur;
+    private Facture archivee;
+    private Facture active;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new FactureArchiver();
+        archiver.factureRepository = factureRepository;
+        archiver.transactionManager = transactionManager;
+        archiver.entityManager = entityManager.getEntityManager();
+        archiver.init();
+
+        Fournisseur f = new Fournisseur();
+        f.setCode("FRN-ARC");
+        f.setCategorieFournisseur(CategorieFournisseur.ORDINAIRE);
+        fournisseur = entityManager.persist(f);
+        archivee = facture(true, "2023-06-30");
+        active = facture(false, "2024-02-01");
+        operateur = entityManager.persist(new Operateur(null, "Op", "Erateur", "secret",
+                new HashSet<>(Arrays.asList(archivee, active))));
+        for (Facture facture : Arrays.asList(archivee, active)) {
+            entityManager.persist(new Reglement(null, 2500L, 0L, true, facture.getDateCreationFacture(), facture));
+            DetailFacture detail = new DetailFacture();
+            detail.setQteCommandee(3);
+            detail.setFacture(facture);
+            entityManager.persist(detail);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Facture facture(boolean archivee, String date) {
+        Facture facture = new Facture();
+        facture.setFournisseur(fournisseur);
+        facture.setArchivee(archivee);
+        facture.setMontantFacture(10_000L);
+        facture.setDateCreationFacture(Date.valueOf(date));
+        return entityManager.persist(facture);
+    }
+
+    @Test
+    void testArchiver_MovesArchivedFactureAndItsRows() {
+        // Act
+        int deplacees = archiver.archiver();
+        entityManager.clear();
+
+        // Assert - hot tables only keep the active facture
+        assertEquals(1, deplacees);
+        assertFalse(factureRepository.findById(archivee.getIdFacture()).isPresent());
+        assertTrue(factureRepository.findById(active.getIdFacture()).isPresent());
+        assertEquals(Collections.singleton(active.getIdFacture()),
+                entityManager.find(Operateur.class, operateur.getIdOperateur()).getFactures().stream()
+                        .map(Facture::getIdFacture).collect(Collectors.toSet()));
+
+        FactureArchive copie = entityManager.find(FactureArchive.class, archivee.getIdFacture());
+        assertEquals(10_000L, copie.getMontantFacture());
+        assertEquals(fournisseur.getIdFournisseur(), copie.getIdFournisseur());
+        assertEquals(operateur.getIdOperateur(), copie.getIdOperateur());
+        assertNotNull(copie.getDateArchivage());
+        assertEquals(1, reglementArchiveRepository.findDTOByFacture(archivee.getIdFacture()).size());
+        List<DetailFactureArchive> details = entityManager.getEntityManager()
+                .createQuery("select d from DetailFactureArchive d where d.idFacture = :id", DetailFactureArchive.class)
+                .setParameter("id", archivee.getIdFacture())
+                .getResultList();
+        assertEquals(1, details.size());
+    }
+
+    @Test
+    void testArchiver_ArchiveReadByFournisseur() {
+        // Arrange
+        archiver.archiver();
+
+        // Act
+        List<FactureDTO> rows = factureArchiveRepository.findDTOByFournisseur(fournisseur.getIdFournisseur(), null,
+                null, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, rows.size());
+        assertEquals(archivee.getIdFacture(), rows.get(0).getIdFacture());
+        assertTrue(rows.get(0).getArchivee());
+        assertEquals(0, archiver.archiver());
+    }
+}
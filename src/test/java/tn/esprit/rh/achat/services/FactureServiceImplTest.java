@@ -0,0 +1,344 @@
+package tn.esprit.rh.achat.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.rh.achat.entities.DetailFacture;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.dto.FactureDTO;
+import tn.esprit.rh.achat.repositories.DetailFactureRepository;
+import tn.esprit.rh.achat.repositories.FactureArchiveRepository;
+import tn.esprit.rh.achat.repositories.FactureRepository;
+import tn.esprit.rh.achat.repositories.ProduitRepository;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+import tn.esprit.rh.achat.util.LogSampler;
+import tn.esprit.rh.achat.util.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FactureServiceImpl
+ * Tests the bulk invoice creation path (batched price lookup, in-memory totals)
+ */
+@ExtendWith(MockitoExtension.class)
+class FactureServiceImplTest {
+
+    @Mock
+    private FactureRepository factureRepository;
+
+    @Mock
+    private ProduitRepository produitRepository;
+
+    @Mock
+    private DetailFactureRepository detailFactureRepository;
+
+    @Mock
+    private ReglementRepository reglementRepository;
+
+    @Mock
+    private ProduitPrixCache produitPrixCache;
+
+    @Mock
+    private RecouvrementRollup recouvrementRollup;
+
+    @Mock
+    private FactureArchiveRepository factureArchiveRepository;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @InjectMocks
+    private FactureServiceImpl factureService;
+
+    private Produit produit1;
+    private Produit produit2;
+
+    @BeforeEach
+    void setUp() {
+        produit1 = new Produit();
+        produit1.setIdProduit(1L);
+        produit1.setPrix(Money.of(10.0));
+
+        produit2 = new Produit();
+        produit2.setIdProduit(2L);
+        produit2.setPrix(Money.of(25.0));
+    }
+
+    private DetailFacture detail(Long idProduit, int qte, Integer remise) {
+        Produit ref = new Produit();
+        ref.setIdProduit(idProduit);
+        DetailFacture detail = new DetailFacture();
+        detail.setProduit(ref);
+        detail.setQteCommandee(qte);
+        detail.setPourcentageRemise(remise);
+        return detail;
+    }
+
+    private static Map<Long, ProduitPrix> prix(Produit... produits) {
+        Map<Long, ProduitPrix> prix = new HashMap<>();
+        for (Produit produit : produits) {
+            prix.put(produit.getIdProduit(), ProduitPrix.of(produit));
+        }
+        return prix;
+    }
+
+    private Facture facture(DetailFacture... details) {
+        Facture facture = new Facture();
+        facture.setDetailsFacture(new HashSet<>(Arrays.asList(details)));
+        return facture;
+    }
+
+    @Test
+    void testAddFactures_ComputesTotals() {
+        // Arrange
+        Facture f1 = facture(detail(1L, 3, 0), detail(2L, 2, 10));
+        Facture f2 = facture(detail(2L, 4, null));
+        when(produitPrixCache.getAll(anyCollection())).thenReturn(prix(produit1, produit2));
+
+        // Act
+        List<Facture> factures = factureService.addFactures(Arrays.asList(f1, f2));
+
+        // Assert
+        assertEquals(2, factures.size());
+        assertEquals(Money.of(75.0), f1.getMontantFacture());
+        assertEquals(Money.of(5.0), f1.getMontantRemise());
+        assertEquals(Money.of(100.0), f2.getMontantFacture());
+        assertEquals(0L, f2.getMontantRemise());
+        assertFalse(f1.getArchivee());
+        assertNotNull(f1.getDateCreationFacture());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAddFactures_SingleProductLookupAndSingleBatch() {
+        // Arrange
+        Facture f1 = facture(detail(1L, 1, 0), detail(2L, 1, 0));
+        Facture f2 = facture(detail(1L, 5, 0));
+        when(produitPrixCache.getAll(anyCollection())).thenReturn(prix(produit1, produit2));
+
+        // Act
+        factureService.addFactures(Arrays.asList(f1, f2));
+
+        // Assert
+        ArgumentCaptor<List<DetailFacture>> lignes = ArgumentCaptor.forClass(List.class);
+        verify(produitPrixCache, times(1)).getAll(anyCollection());
+        verify(produitPrixCache, never()).get(any());
+        verify(produitRepository, never()).findById(any());
+        verify(factureRepository, times(1)).saveAll(any());
+        verify(detailFactureRepository, times(1)).saveAll(lignes.capture());
+        verify(detailFactureRepository, never()).save(any());
+        assertEquals(3, lignes.getValue().size());
+        for (DetailFacture ligne : lignes.getValue()) {
+            assertNotNull(ligne.getFacture());
+        }
+        verify(recouvrementRollup).factureAjoutee(f1);
+        verify(recouvrementRollup).factureAjoutee(f2);
+    }
+
+    @Test
+    void testCancelFacture_RemovesFactureFromRollupOnce() {
+        // Arrange
+        Facture active = new Facture();
+        active.setIdFacture(1L);
+        active.setArchivee(false);
+        List<Reglement> reglements = Collections.singletonList(new Reglement());
+        when(factureRepository.lockById(1L)).thenReturn(Optional.of(active));
+        when(reglementRepository.retrieveReglementByFacture(1L)).thenReturn(reglements);
+
+        // Act
+        factureService.cancelFacture(1L);
+        factureService.cancelFacture(1L);
+
+        // Assert
+        assertTrue(active.getArchivee());
+        verify(recouvrementRollup, times(1)).factureArchivee(active, reglements);
+        verify(factureRepository, never()).save(any(Facture.class));
+    }
+
+    @Test
+    void testCancelFacture_NullArchivee_ArchivedWithoutTouchingAggregates() {
+        // Arrange - jamais comptée dans les agrégats (factureAjoutee exige archivee = false)
+        Facture sansEtat = new Facture();
+        sansEtat.setIdFacture(3L);
+        when(factureRepository.lockById(3L)).thenReturn(Optional.of(sansEtat));
+
+        // Act
+        factureService.cancelFacture(3L);
+
+        // Assert
+        assertTrue(sansEtat.getArchivee());
+        verifyNoInteractions(recouvrementRollup, reglementRepository, invalidationBus);
+    }
+
+    @Test
+    void testCancelFacture_UnknownId_NothingSaved() {
+        // Arrange
+        when(factureRepository.lockById(42L)).thenReturn(Optional.empty());
+
+        // Act
+        factureService.cancelFacture(42L);
+
+        // Assert
+        verify(factureRepository, never()).save(any(Facture.class));
+        verifyNoInteractions(recouvrementRollup, reglementRepository, invalidationBus);
+    }
+
+    @Test
+    void testAddFactures_LargeInvoiceTotalIsExact() {
+        // Arrange - 10 000 lignes à 0,100 DT avec 3 % de remise : float dérivait de plusieurs dinars
+        Produit produit = new Produit();
+        produit.setIdProduit(3L);
+        produit.setPrix(Money.of(0.1));
+        DetailFacture[] details = new DetailFacture[10_000];
+        for (int i = 0; i < details.length; i++) {
+            details[i] = detail(3L, 7, 3);
+        }
+        Facture f = facture(details);
+        when(produitPrixCache.getAll(anyCollection())).thenReturn(prix(produit));
+
+        // Act
+        factureService.addFactures(Collections.singletonList(f));
+
+        // Assert - par ligne : 700 - 21 millimes
+        assertEquals(10_000 * 679L, f.getMontantFacture());
+        assertEquals(10_000 * 21L, f.getMontantRemise());
+    }
+
+    @Test
+    void testAddFactures_UnknownProduit() {
+        // Arrange
+        Facture f1 = facture(detail(99L, 1, 0));
+        when(produitPrixCache.getAll(anyCollection())).thenReturn(Collections.emptyMap());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> factureService.addFactures(Collections.singletonList(f1)));
+        verify(factureRepository, never()).saveAll(any());
+        verify(detailFactureRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testGetFacturesByFournisseur_PicksKeysetQuery() {
+        // Arrange
+        Date jour = new Date();
+
+        // Act - première page, après une facture datée, après une facture sans date
+        factureService.getFacturesByFournisseur(7L, false, null, null, null, null, 51);
+        factureService.getFacturesByFournisseur(7L, false, null, null, jour, 40L, 51);
+        factureService.getFacturesByFournisseur(7L, true, null, null, null, 12L, 51);
+
+        // Assert - the supplier entity and its collection are never loaded
+        verify(factureRepository).findDTOByFournisseur(7L, false, null, null, PageRequest.of(0, 51));
+        verify(factureRepository).findDTOByFournisseurAfter(7L, false, null, null, jour, 40L, PageRequest.of(0, 51));
+        verify(factureRepository).findDTOByFournisseurSansDateAfter(7L, true, 12L, PageRequest.of(0, 51));
+        verifyNoMoreInteractions(factureRepository);
+    }
+
+    @Test
+    void testGetFacturesArchiveesByFournisseur_MergesHotAndArchivePages() {
+        // Arrange - same keyset on both sides, undated factures last
+        PageRequest page = PageRequest.of(0, 3);
+        FactureDTO chaudeMars = dto(9L, "2024-03-01");
+        FactureDTO chaudeSansDate = dto(12L, null);
+        FactureDTO archiveAvril = dto(4L, "2024-04-01");
+        FactureDTO archiveMars = dto(5L, "2024-03-01");
+        when(factureRepository.findDTOByFournisseur(7L, true, null, null, page))
+                .thenReturn(Arrays.asList(chaudeMars, chaudeSansDate));
+        when(factureArchiveRepository.findDTOByFournisseur(7L, null, null, page))
+                .thenReturn(Arrays.asList(archiveAvril, archiveMars));
+
+        // Act
+        List<FactureDTO> rows = factureService.getFacturesArchiveesByFournisseur(7L, null, null, null, null, 3);
+
+        // Assert
+        assertEquals(Arrays.asList(archiveAvril, chaudeMars, archiveMars), rows);
+    }
+
+    private static FactureDTO dto(Long id, String date) {
+        FactureDTO dto = new FactureDTO();
+        dto.setIdFacture(id);
+        dto.setArchivee(true);
+        dto.setDateCreationFacture(date == null ? null : java.sql.Date.valueOf(date));
+        return dto;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCancelFactures_OneUpdatePerChunk() {
+        // Arrange - 1 200 ids (plus a duplicate): three chunks, the last one partly already archived
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        when(factureRepository.lockFacturesActives(anyCollection()))
+                .thenAnswer(inv -> new ArrayList<>((Collection<Long>) inv.getArgument(0)))
+                .thenAnswer(inv -> new ArrayList<>((Collection<Long>) inv.getArgument(0)))
+                .thenReturn(Arrays.asList(1001L, 1002L));
+        when(factureRepository.archiverFactures(anyCollection()))
+                .thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).size());
+
+        // Act
+        int archivees = factureService.cancelFactures(ids);
+
+        // Assert
+        assertEquals(2 * FactureServiceImpl.TAILLE_LOT + 2, archivees);
+        ArgumentCaptor<Collection<Long>> lots = ArgumentCaptor.forClass(Collection.class);
+        verify(factureRepository, times(3)).lockFacturesActives(lots.capture());
+        assertEquals(Arrays.asList(500, 500, 200),
+                lots.getAllValues().stream().map(Collection::size).collect(Collectors.toList()));
+        verify(factureRepository, times(3)).archiverFactures(anyCollection());
+        verify(recouvrementRollup, times(3)).facturesArchivees(any(), any());
+        verify(factureRepository, never()).findById(any());
+        verify(factureRepository, never()).save(any());
+    }
+
+    @Test
+    void testCancelFacturesByFournisseur_WalksChunksByKeyset() {
+        // Arrange - a full chunk then a partial one
+        List<Long> plein = new ArrayList<>();
+        for (long id = 1; id <= FactureServiceImpl.TAILLE_LOT; id++) {
+            plein.add(id);
+        }
+        PageRequest page = PageRequest.of(0, FactureServiceImpl.TAILLE_LOT);
+        when(factureRepository.lockFacturesActivesByFournisseur(7L, null, null, 0L, page)).thenReturn(plein);
+        when(factureRepository.lockFacturesActivesByFournisseur(7L, null, null, 500L, page))
+                .thenReturn(Arrays.asList(501L, 502L));
+        when(factureRepository.archiverFactures(plein)).thenReturn(plein.size());
+        when(factureRepository.archiverFactures(Arrays.asList(501L, 502L))).thenReturn(2);
+        List<Object[]> reglements = Collections.singletonList(new Object[] { new Date(), 7L, 1000L });
+        when(reglementRepository.sumReglementsParJourEtFournisseur(plein)).thenReturn(reglements);
+
+        // Act
+        int archivees = factureService.cancelFacturesByFournisseur(7L, null, null);
+
+        // Assert - no third query after a partial chunk
+        assertEquals(502, archivees);
+        verify(factureRepository, times(2)).lockFacturesActivesByFournisseur(any(), any(), any(), any(), any());
+        verify(recouvrementRollup).facturesArchivees(Collections.emptyList(), reglements);
+    }
+}
@@ -6,10 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.rh.achat.dto.FournisseurDTO;
 import tn.esprit.rh.achat.entities.*;
 import tn.esprit.rh.achat.repositories.DetailFournisseurRepository;
 import tn.esprit.rh.achat.repositories.FournisseurRepository;
 import tn.esprit.rh.achat.repositories.SecteurActiviteRepository;
+import tn.esprit.rh.achat.util.LogSampler;
 
 import java.util.*;
 
@@ -34,6 +36,9 @@ class FournisseurServiceImplTest {
     @Mock
     private SecteurActiviteRepository secteurActiviteRepository;
 
+    @Mock
+    private LogSampler logSampler;
+
     @InjectMocks
     private FournisseurServiceImpl fournisseurService;
 
@@ -69,31 +74,33 @@ class FournisseurServiceImplTest {
     @Test
     void testRetrieveAllFournisseurs_Success() {
         // Arrange
-        List<Fournisseur> fournisseurs = Arrays.asList(fournisseur);
-        when(fournisseurRepository.findAll()).thenReturn(fournisseurs);
+        List<FournisseurDTO> fournisseurs = Arrays.asList(
+                new FournisseurDTO(1L, "FRN001", "Fournisseur Test", CategorieFournisseur.ORDINAIRE));
+        when(fournisseurRepository.findAllDTO()).thenReturn(fournisseurs);
 
         // Act
-        List<Fournisseur> result = fournisseurService.retrieveAllFournisseurs();
+        List<FournisseurDTO> result = fournisseurService.retrieveAllFournisseurs();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("FRN001", result.get(0).getCode());
-        verify(fournisseurRepository, times(1)).findAll();
+        verify(fournisseurRepository, times(1)).findAllDTO();
+        verify(fournisseurRepository, never()).findAll();
     }
 
     @Test
     void testRetrieveAllFournisseurs_EmptyList() {
         // Arrange
-        when(fournisseurRepository.findAll()).thenReturn(new ArrayList<>());
+        when(fournisseurRepository.findAllDTO()).thenReturn(new ArrayList<>());
 
         // Act
-        List<Fournisseur> result = fournisseurService.retrieveAllFournisseurs();
+        List<FournisseurDTO> result = fournisseurService.retrieveAllFournisseurs();
 
         // Assert
         assertNotNull(result);
         assertEquals(0, result.size());
-        verify(fournisseurRepository, times(1)).findAll();
+        verify(fournisseurRepository, times(1)).findAllDTO();
     }
 
     @Test
@@ -155,17 +162,25 @@ class FournisseurServiceImplTest {
     @Test
     void testUpdateFournisseur_WithNullDetailFournisseur() {
         // Arrange
+        Fournisseur enregistre = new Fournisseur();
+        enregistre.setIdFournisseur(1L);
+        enregistre.setDetailFournisseur(detailFournisseur);
+        enregistre.setSecteurActivites(new HashSet<>(Collections.singleton(secteurActivite)));
+        when(fournisseurRepository.findById(1L)).thenReturn(Optional.of(enregistre));
+        when(fournisseurRepository.save(enregistre)).thenReturn(enregistre);
         fournisseur.setDetailFournisseur(null);
-        
-        // Act & Assert - Current implementation will throw NullPointerException
-        // when trying to access null detailFournisseur
-        try {
-            fournisseurService.updateFournisseur(fournisseur);
-            // If we reach here, the service handled null gracefully (unexpected but acceptable)
-        } catch (NullPointerException e) {
-            // This is expected behavior - accessing null reference
-            assertNotNull(e);
-        }
+        fournisseur.setSecteurActivites(null);
+        fournisseur.setLibelle("Libellé modifié");
+
+        // Act
+        Fournisseur result = fournisseurService.updateFournisseur(fournisseur);
+
+        // Assert - DTO fields are applied, the stored detail and sectors are kept
+        assertSame(enregistre, result);
+        assertEquals("Libellé modifié", result.getLibelle());
+        assertSame(detailFournisseur, result.getDetailFournisseur());
+        assertEquals(1, result.getSecteurActivites().size());
+        verify(detailFournisseurRepository, never()).save(any());
     }
 
     @Test
@@ -184,7 +199,7 @@ class FournisseurServiceImplTest {
     @Test
     void testRetrieveFournisseur_Success() {
         // Arrange
-        when(fournisseurRepository.findById(anyLong())).thenReturn(Optional.of(fournisseur));
+        when(fournisseurRepository.findDetailByIdFournisseur(anyLong())).thenReturn(Optional.of(fournisseur));
 
         // Act
         Fournisseur result = fournisseurService.retrieveFournisseur(1L);
@@ -193,20 +208,20 @@ class FournisseurServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getIdFournisseur());
         assertEquals("FRN001", result.getCode());
-        verify(fournisseurRepository, times(1)).findById(1L);
+        verify(fournisseurRepository, times(1)).findDetailByIdFournisseur(1L);
     }
 
     @Test
     void testRetrieveFournisseur_NotFound() {
         // Arrange
-        when(fournisseurRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(fournisseurRepository.findDetailByIdFournisseur(anyLong())).thenReturn(Optional.empty());
 
         // Act
         Fournisseur result = fournisseurService.retrieveFournisseur(999L);
 
         // Assert
         assertNull(result);
-        verify(fournisseurRepository, times(1)).findById(999L);
+        verify(fournisseurRepository, times(1)).findDetailByIdFournisseur(999L);
     }
 
     @Test
@@ -297,7 +312,7 @@ class FournisseurServiceImplTest {
         secteurs.add(secteur2);
         fournisseur.setSecteurActivites(secteurs);
 
-        when(fournisseurRepository.findById(anyLong())).thenReturn(Optional.of(fournisseur));
+        when(fournisseurRepository.findDetailByIdFournisseur(anyLong())).thenReturn(Optional.of(fournisseur));
 
         // Act
         Fournisseur result = fournisseurService.retrieveFournisseur(1L);
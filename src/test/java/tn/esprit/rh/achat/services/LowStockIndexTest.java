@@ -0,0 +1,78 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.StockRepository;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LowStockIndex
+ * Tests seeding, threshold transitions and the red-stock gauge
+ */
+class LowStockIndexTest {
+
+    private LowStockIndex index;
+    private SimpleMeterRegistry meterRegistry;
+    private StockRepository stockRepository;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = mock(StockRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new LowStockIndex();
+        index.stockRepository = stockRepository;
+        index.meterRegistry = meterRegistry;
+        index.registerGauge();
+    }
+
+    private Stock stock(Long id, int qte, int qteMin) {
+        Stock stock = new Stock("Stock " + id, qte, qteMin);
+        stock.setIdStock(id);
+        return stock;
+    }
+
+    @Test
+    void testLoad_SeedsFromRepository() {
+        // Arrange
+        when(stockRepository.retrieveStatusStock()).thenReturn(Arrays.asList(stock(1L, 2, 10), stock(2L, 0, 5)));
+
+        // Act
+        index.load();
+
+        // Assert
+        assertEquals(2, index.size());
+        assertEquals(2.0, meterRegistry.get("achat.stock.rouge").gauge().value());
+        verify(stockRepository, times(1)).retrieveStatusStock();
+    }
+
+    @Test
+    void testUpdate_Transitions() {
+        assertEquals(LowStockIndex.Transition.AUCUNE, index.update(stock(1L, 50, 10)));
+        assertEquals(LowStockIndex.Transition.ENTREE_EN_ROUGE, index.update(stock(1L, 5, 10)));
+        assertEquals(LowStockIndex.Transition.AUCUNE, index.update(stock(1L, 3, 10)));
+        assertEquals(3, index.getStocksEnRouge().get(0).getQte());
+        assertEquals(LowStockIndex.Transition.SORTIE_DU_ROUGE, index.update(stock(1L, 10, 10)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testUpdate_NullQuantitiesAreNotRed() {
+        Stock stock = new Stock();
+        stock.setIdStock(3L);
+        assertEquals(LowStockIndex.Transition.AUCUNE, index.update(stock));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testRemove() {
+        index.update(stock(1L, 1, 10));
+        index.remove(1L);
+        assertTrue(index.getStocksEnRouge().isEmpty());
+    }
+}
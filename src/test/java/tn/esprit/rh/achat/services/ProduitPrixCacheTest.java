@@ -0,0 +1,118 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.repositories.ProduitRepository;
+import tn.esprit.rh.achat.util.Money;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProduitPrixCache
+ * Misses are loaded with a single batched query, hits never reach the repository
+ */
+@ExtendWith(MockitoExtension.class)
+class ProduitPrixCacheTest {
+
+    @Mock
+    private ProduitRepository produitRepository;
+
+    private ProduitPrixCache produitPrixCache;
+    private SimpleMeterRegistry meterRegistry;
+    private InProcessInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        invalidationBus = new InProcessInvalidationBus();
+        produitPrixCache = new ProduitPrixCache();
+        produitPrixCache.produitRepository = produitRepository;
+        produitPrixCache.meterRegistry = meterRegistry;
+        produitPrixCache.invalidationBus = invalidationBus;
+        produitPrixCache.maximumSize = 100;
+        produitPrixCache.expireAfterWrite = Duration.ofMinutes(5);
+        produitPrixCache.init();
+    }
+
+    private static Produit produit(long id, double prix) {
+        Produit produit = new Produit();
+        produit.setIdProduit(id);
+        produit.setCodeProduit("P" + id);
+        produit.setPrix(Money.of(prix));
+        return produit;
+    }
+
+    @Test
+    void testGetAll_MissesLoadedInOneQueryThenServedFromCache() {
+        // Arrange
+        when(produitRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(produit(1, 10), produit(2, 20)));
+
+        // Act
+        Map<Long, ProduitPrix> premier = produitPrixCache.getAll(Arrays.asList(1L, 2L, 3L));
+        Map<Long, ProduitPrix> second = produitPrixCache.getAll(Arrays.asList(1L, 2L));
+
+        // Assert - le produit 3 n'existe pas
+        assertEquals(2, premier.size());
+        assertEquals(Money.of(20), second.get(2L).getPrix());
+        verify(produitRepository, times(1)).findAllById(anyIterable());
+        verify(produitRepository, never()).findById(anyLong());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "produitPrix").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testInvalidate_ReloadsProduit() {
+        // Arrange
+        when(produitRepository.findById(1L))
+                .thenReturn(Optional.of(produit(1, 10)))
+                .thenReturn(Optional.of(produit(1, 12)));
+
+        // Act
+        assertEquals(Money.of(10), produitPrixCache.get(1L).getPrix());
+        assertEquals(Money.of(10), produitPrixCache.get(1L).getPrix());
+        produitPrixCache.invalidate(1L);
+
+        // Assert
+        assertEquals(Money.of(12), produitPrixCache.get(1L).getPrix());
+        verify(produitRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testPublishedInvalidation_ReloadsProduit() {
+        // Arrange
+        when(produitRepository.findById(1L))
+                .thenReturn(Optional.of(produit(1, 10)))
+                .thenReturn(Optional.of(produit(1, 12)));
+        assertEquals(Money.of(10), produitPrixCache.get(1L).getPrix());
+
+        // Act
+        invalidationBus.publish(Produit.class, 1L);
+
+        // Assert
+        assertEquals(Money.of(12), produitPrixCache.get(1L).getPrix());
+    }
+
+    @Test
+    void testGet_UnknownProduit() {
+        // Arrange
+        when(produitRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertNull(produitPrixCache.get(99L));
+        assertTrue(produitPrixCache.getAll(Collections.emptyList()).isEmpty());
+    }
+}
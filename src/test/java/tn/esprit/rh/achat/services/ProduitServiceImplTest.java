@@ -6,11 +6,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.rh.achat.dto.ProduitDTO;
 import tn.esprit.rh.achat.entities.Produit;
 import tn.esprit.rh.achat.entities.Stock;
 import tn.esprit.rh.achat.repositories.CategorieProduitRepository;
 import tn.esprit.rh.achat.repositories.ProduitRepository;
 import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.util.LogSampler;
+import tn.esprit.rh.achat.util.Money;
 
 import java.util.Arrays;
 import java.util.List;
@@ -37,6 +40,15 @@ class ProduitServiceImplTest {
     @Mock
     private CategorieProduitRepository categorieProduitRepository;
 
+    @Mock
+    private ProduitPrixCache produitPrixCache;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private ProduitServiceImpl produitService;
 
@@ -51,13 +63,13 @@ class ProduitServiceImplTest {
         produit1.setIdProduit(1L);
         produit1.setCodeProduit("PROD-001");
         produit1.setLibelleProduit("Test Product 1");
-        produit1.setPrix(100.0f);
+        produit1.setPrix(Money.of(100.0));
 
         produit2 = new Produit();
         produit2.setIdProduit(2L);
         produit2.setCodeProduit("PROD-002");
         produit2.setLibelleProduit("Test Product 2");
-        produit2.setPrix(200.0f);
+        produit2.setPrix(Money.of(200.0));
 
         stock = new Stock();
         stock.setIdStock(1L);
@@ -69,31 +81,34 @@ class ProduitServiceImplTest {
     @Test
     void testRetrieveAllProduits() {
         // Arrange
-        List<Produit> expectedProduits = Arrays.asList(produit1, produit2);
-        when(produitRepository.findAll()).thenReturn(expectedProduits);
+        List<ProduitDTO> expectedProduits = Arrays.asList(
+                new ProduitDTO(1L, "PROD-001", "Test Product 1", 100.0, null, null),
+                new ProduitDTO(2L, "PROD-002", "Test Product 2", 200.0, null, null));
+        when(produitRepository.findAllDTO()).thenReturn(expectedProduits);
 
         // Act
-        List<Produit> actualProduits = produitService.retrieveAllProduits();
+        List<ProduitDTO> actualProduits = produitService.retrieveAllProduits();
 
         // Assert
         assertNotNull(actualProduits);
         assertEquals(2, actualProduits.size());
         assertEquals(expectedProduits, actualProduits);
-        verify(produitRepository, times(1)).findAll();
+        verify(produitRepository, times(1)).findAllDTO();
+        verify(produitRepository, never()).findAll();
     }
 
     @Test
     void testRetrieveAllProduits_EmptyList() {
         // Arrange
-        when(produitRepository.findAll()).thenReturn(Arrays.asList());
+        when(produitRepository.findAllDTO()).thenReturn(Arrays.asList());
 
         // Act
-        List<Produit> actualProduits = produitService.retrieveAllProduits();
+        List<ProduitDTO> actualProduits = produitService.retrieveAllProduits();
 
         // Assert
         assertNotNull(actualProduits);
         assertTrue(actualProduits.isEmpty());
-        verify(produitRepository, times(1)).findAll();
+        verify(produitRepository, times(1)).findAllDTO();
     }
 
     @Test
@@ -122,13 +137,14 @@ class ProduitServiceImplTest {
 
         // Assert
         verify(produitRepository, times(1)).deleteById(produitId);
+        verify(invalidationBus, times(1)).publish(Produit.class, produitId);
     }
 
     @Test
     void testUpdateProduit() {
         // Arrange
         produit1.setLibelleProduit("Updated Product");
-        produit1.setPrix(150.0f);
+        produit1.setPrix(Money.of(150.0));
         when(produitRepository.save(any(Produit.class))).thenReturn(produit1);
 
         // Act
@@ -137,8 +153,9 @@ class ProduitServiceImplTest {
         // Assert
         assertNotNull(updatedProduit);
         assertEquals("Updated Product", updatedProduit.getLibelleProduit());
-        assertEquals(150.0f, updatedProduit.getPrix());
+        assertEquals(Money.of(150.0), updatedProduit.getPrix());
         verify(produitRepository, times(1)).save(produit1);
+        verify(invalidationBus, times(1)).publish(Produit.class, 1L);
     }
 
     @Test
@@ -238,15 +255,14 @@ class ProduitServiceImplTest {
     @Test
     void testRetrieveAllProduits_MultipleCalls() {
         // Arrange
-        List<Produit> expectedProduits = Arrays.asList(produit1, produit2);
-        when(produitRepository.findAll()).thenReturn(expectedProduits);
+        when(produitRepository.findAllDTO()).thenReturn(Arrays.asList());
 
         // Act
         produitService.retrieveAllProduits();
         produitService.retrieveAllProduits();
 
         // Assert
-        verify(produitRepository, times(2)).findAll();
+        verify(produitRepository, times(2)).findAllDTO();
     }
 
     @Test
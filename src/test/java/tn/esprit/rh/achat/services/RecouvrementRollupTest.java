@@ -0,0 +1,77 @@
+package tn.esprit.rh.achat.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.repositories.RecouvrementJournalierRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for RecouvrementRollup
+ * Tests that the daily aggregates only move for active factures
+ * Runs on the H2 database of the test properties (MySQL mode), for the upsert
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RecouvrementRollup.class)
+class RecouvrementRollupTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2024, 3, 15);
+
+    @Autowired
+    private RecouvrementRollup recouvrementRollup;
+
+    @Autowired
+    private RecouvrementJournalierRepository recouvrementRepository;
+
+    private Facture facture(Boolean archivee) {
+        Facture facture = new Facture();
+        facture.setArchivee(archivee);
+        facture.setMontantFacture(100_000L);
+        facture.setDateCreationFacture(Date.valueOf(JOUR));
+        return facture;
+    }
+
+    private List<Reglement> reglements() {
+        return Collections.singletonList(new Reglement(null, 40_000L, 0L, true, Date.valueOf(JOUR), null));
+    }
+
+    @Test
+    void testFactureArchivee_ActiveFacture_SubtractsItsAmounts() {
+        // Arrange
+        Facture active = facture(false);
+        recouvrementRollup.factureAjoutee(active);
+        recouvrementRollup.reglementAjoute(reglements().get(0), active);
+
+        // Act
+        recouvrementRollup.factureArchivee(active, reglements());
+
+        // Assert
+        assertEquals(0, recouvrementRepository.getTotalFacturesEntreDeuxDates(JOUR, JOUR));
+        assertEquals(0, recouvrementRepository.getTotalPayeEntreDeuxDates(JOUR, JOUR));
+    }
+
+    @Test
+    void testFactureArchivee_ArchivedOrNullFacture_LeavesTotalsUnchanged() {
+        // Arrange
+        recouvrementRollup.factureAjoutee(facture(false));
+
+        // Act
+        recouvrementRollup.factureArchivee(facture(true), reglements());
+        recouvrementRollup.factureArchivee(facture(null), reglements());
+
+        // Assert
+        assertEquals(100_000L, recouvrementRepository.getTotalFacturesEntreDeuxDates(JOUR, JOUR));
+        assertEquals(0, recouvrementRepository.getTotalPayeEntreDeuxDates(JOUR, JOUR));
+    }
+}
@@ -0,0 +1,130 @@
+package tn.esprit.rh.achat.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
+import tn.esprit.rh.achat.entities.DetailFacture;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Produit;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.DetailFactureRepository;
+import tn.esprit.rh.achat.repositories.StockRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ReorderSuggestions
+ * Daily consumption per stock over the window, days without invoices counted as zero,
+ * stocks without any invoice line listed with zero consumption
+ */
+@DataJpaTest
+class ReorderSuggestionsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DetailFactureRepository detailFactureRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    private ReorderSuggestions reorderSuggestions;
+    private Stock stockA;
+    private Stock stockB;
+    private Stock stockC;
+
+    @BeforeEach
+    void setUp() {
+        reorderSuggestions = new ReorderSuggestions();
+        reorderSuggestions.detailFactureRepository = detailFactureRepository;
+        reorderSuggestions.stockRepository = stockRepository;
+        reorderSuggestions.fenetreJours = 10;
+        reorderSuggestions.delaiJours = 4;
+        reorderSuggestions.cycleJours = 10;
+        reorderSuggestions.z = 2;
+
+        stockA = entityManager.persist(new Stock("STK-A", 5, 1));
+        stockB = entityManager.persist(new Stock("STK-B", 100, 1));
+        stockC = entityManager.persist(new Stock("STK-C", 3, 2));
+        Produit a1 = produit("A1", stockA);
+        Produit a2 = produit("A2", stockA);
+        Produit b1 = produit("B1", stockB);
+        LocalDate aujourdhui = LocalDate.now();
+
+        // stock A : 10 puis 10 (deux produits le même jour) sur 2 des 10 jours ; le reste à zéro
+        ligne(facture(aujourdhui, false), a1, 6);
+        ligne(facture(aujourdhui, false), a2, 4);
+        ligne(facture(aujourdhui.minusDays(3), false), a1, 10);
+        // hors fenêtre, ou facture archivée : ignorés
+        ligne(facture(aujourdhui.minusDays(10), false), a1, 500);
+        ligne(facture(aujourdhui.minusDays(1), true), a2, 500);
+        // stock B : 5 chaque jour
+        for (int i = 0; i < 10; i++) {
+            ligne(facture(aujourdhui.minusDays(i), false), b1, 5);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Produit produit(String code, Stock stock) {
+        Produit produit = new Produit();
+        produit.setCodeProduit(code);
+        produit.setStock(stock);
+        return entityManager.persist(produit);
+    }
+
+    private Facture facture(LocalDate jour, boolean archivee) {
+        Facture facture = new Facture();
+        facture.setArchivee(archivee);
+        facture.setDateCreationFacture(Date.valueOf(jour));
+        return entityManager.persist(facture);
+    }
+
+    private void ligne(Facture facture, Produit produit, int qte) {
+        DetailFacture detail = new DetailFacture();
+        detail.setFacture(facture);
+        detail.setProduit(produit);
+        detail.setQteCommandee(qte);
+        entityManager.persist(detail);
+    }
+
+    @Test
+    void testCalculer_DailyConsumptionPerStock() {
+        // Act
+        List<ReorderSuggestionDTO> suggestions = reorderSuggestions.calculer();
+
+        // Assert - A : moyenne 2/jour, écart type 4 ; qteMin = 2*4 + 2*4*2 = 24, à commander 24 + 20 - 5
+        assertEquals(3, suggestions.size());
+        ReorderSuggestionDTO a = suggestions.get(0);
+        assertEquals(stockA.getIdStock(), a.getIdStock());
+        assertEquals(2.0, a.getConsommationMoyenneJour(), 1e-9);
+        assertEquals(4.0, a.getEcartTypeJour(), 1e-9);
+        assertEquals(24, a.getQteMinSuggeree());
+        assertEquals(39, a.getQteACommander());
+        assertEquals(1, a.getQteMin());
+
+        // B : demande constante, pas de stock de sécurité ; stock suffisant
+        ReorderSuggestionDTO b = suggestions.get(1);
+        assertEquals(5.0, b.getConsommationMoyenneJour(), 1e-9);
+        assertEquals(0.0, b.getEcartTypeJour(), 1e-9);
+        assertEquals(20, b.getQteMinSuggeree());
+        assertEquals(0, b.getQteACommander());
+
+        // C : aucune ligne sur la fenêtre, présent avec une consommation nulle
+        ReorderSuggestionDTO c = suggestions.get(2);
+        assertEquals(stockC.getIdStock(), c.getIdStock());
+        assertEquals(0.0, c.getConsommationMoyenneJour(), 1e-9);
+        assertEquals(0, c.getQteMinSuggeree());
+        assertEquals(0, c.getQteACommander());
+        assertEquals(2, c.getQteMin());
+        assertSame(suggestions, reorderSuggestions.getDernieres());
+    }
+}
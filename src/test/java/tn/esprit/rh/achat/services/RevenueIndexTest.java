@@ -0,0 +1,163 @@
+package tn.esprit.rh.achat.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.rh.achat.entities.Facture;
+import tn.esprit.rh.achat.entities.Reglement;
+import tn.esprit.rh.achat.repositories.ReglementRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for RevenueIndex
+ * Every range sum must match the SQL query it replaces
+ */
+@DataJpaTest
+class RevenueIndexTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2022, 1, 1);
+    private static final int NB_JOURS = 400;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReglementRepository reglementRepository;
+
+    private RevenueIndex revenueIndex;
+    private InvalidationBus invalidationBus;
+    private Facture active;
+    private Facture archivee;
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void setUp() {
+        active = facture(false);
+        archivee = facture(true);
+        reglement(active, DEBUT, 10_000L);
+        for (int i = 0; i < 300; i++) {
+            reglement(random.nextBoolean() ? active : archivee, DEBUT.plusDays(random.nextInt(NB_JOURS)),
+                    random.nextInt(1_000_000));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        invalidationBus = new InProcessInvalidationBus();
+        revenueIndex = new RevenueIndex();
+        revenueIndex.reglementRepository = reglementRepository;
+        revenueIndex.invalidationBus = invalidationBus;
+        revenueIndex.subscribe();
+        revenueIndex.load();
+    }
+
+    private Facture facture(boolean archived) {
+        Facture facture = new Facture();
+        facture.setArchivee(archived);
+        return entityManager.persist(facture);
+    }
+
+    private Reglement reglement(Facture facture, LocalDate jour, long montant) {
+        Reglement reglement = new Reglement();
+        reglement.setFacture(facture);
+        reglement.setDateReglement(Date.valueOf(jour));
+        reglement.setMontantPaye(montant);
+        return entityManager.persist(reglement);
+    }
+
+    /** la transaction de test n'est jamais commitée : on déclenche les mises à jour différées à la main */
+    private static void afterCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private void assertSameAsSql(LocalDate debut, LocalDate fin) {
+        Date startDate = Date.valueOf(debut);
+        Date endDate = Date.valueOf(fin);
+        Long sql = reglementRepository.getChiffreAffaireEntreDeuxDate(startDate, endDate);
+        assertTrue(revenueIndex.couvre(startDate));
+        assertEquals(sql == null ? 0 : sql, revenueIndex.getChiffreAffaireEntreDeuxDate(startDate, endDate),
+                debut + " -> " + fin);
+    }
+
+    @Test
+    void testRangeSums_MatchSql() {
+        for (int i = 0; i < 200; i++) {
+            LocalDate debut = DEBUT.plusDays(random.nextInt(NB_JOURS));
+            assertSameAsSql(debut, debut.plusDays(random.nextInt(NB_JOURS)));
+        }
+        assertSameAsSql(DEBUT, DEBUT);
+        assertSameAsSql(DEBUT, DEBUT.plusYears(5));
+    }
+
+    @Test
+    void testUpdates_MatchSql() {
+        // Act - nouveau règlement, y compris au-delà de la capacité initiale
+        for (LocalDate jour : new LocalDate[] { DEBUT.plusDays(10), DEBUT.plusYears(20) }) {
+            Reglement reglement = reglement(entityManager.find(Facture.class, active.getIdFacture()), jour, 123_500L);
+            revenueIndex.reglementAjoute(reglement, reglement.getFacture());
+        }
+        // Act - archivage d'une facture
+        Facture facture = entityManager.find(Facture.class, active.getIdFacture());
+        facture.setArchivee(true);
+        revenueIndex.factureArchivee(facture.getIdFacture(),
+                reglementRepository.retrieveReglementByFacture(facture.getIdFacture()));
+        entityManager.flush();
+        afterCommit();
+
+        // Assert
+        assertSameAsSql(DEBUT, DEBUT.plusYears(25));
+        assertEquals(0, revenueIndex.getChiffreAffaireEntreDeuxDate(Date.valueOf(DEBUT.plusDays(10)),
+                Date.valueOf(DEBUT.plusDays(10))));
+    }
+
+    @Test
+    void testRemoteChange_ReloadedOnRefresh() {
+        // Arrange - règlement enregistré par un autre réplica : seule la notification arrive
+        Reglement reglement = reglement(entityManager.find(Facture.class, active.getIdFacture()),
+                DEBUT.plusDays(20), 77_000L);
+        entityManager.flush();
+        invalidationBus.publish(Reglement.class, reglement.getIdReglement());
+        afterCommit();
+
+        // Act
+        revenueIndex.recharger();
+
+        // Assert
+        assertSameAsSql(DEBUT, DEBUT.plusYears(5));
+    }
+
+    @Test
+    void testLocalChange_NotReloaded() {
+        // Arrange - règlement ajouté ici, puis une ligne écrite en base sans notification
+        Facture facture = entityManager.find(Facture.class, active.getIdFacture());
+        Reglement local = reglement(facture, DEBUT.plusDays(30), 1_000L);
+        revenueIndex.reglementAjoute(local, facture);
+        invalidationBus.publish(Reglement.class, local.getIdReglement());
+        reglement(facture, DEBUT.plusDays(30), 50_000L);
+        entityManager.flush();
+        afterCommit();
+
+        // Act
+        revenueIndex.recharger();
+
+        // Assert - la notification locale n'a pas provoqué de rechargement
+        Date jour = Date.valueOf(DEBUT.plusDays(30));
+        assertEquals(reglementRepository.getChiffreAffaireEntreDeuxDate(jour, jour) - 50_000L,
+                revenueIndex.getChiffreAffaireEntreDeuxDate(jour, jour));
+    }
+
+    @Test
+    void testRangeBeforeOrigin_NotCovered() {
+        assertFalse(revenueIndex.couvre(Date.valueOf(DEBUT.minusDays(1))));
+        assertThrows(IllegalStateException.class, () -> revenueIndex.getChiffreAffaireEntreDeuxDate(
+                Date.valueOf(DEBUT.minusDays(1)), Date.valueOf(DEBUT)));
+    }
+}
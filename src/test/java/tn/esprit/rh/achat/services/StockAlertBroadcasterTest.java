@@ -0,0 +1,175 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StockAlertBroadcaster
+ * Tests per-client buffering, eviction of full or stalled clients and emitter cleanup
+ */
+class StockAlertBroadcasterTest {
+
+    private SimpleMeterRegistry registry;
+    private StockAlertBroadcaster broadcaster;
+
+    private StockAlertBroadcaster broadcaster(int bufferSize, int senderThreads, long sendTimeoutMs) {
+        registry = new SimpleMeterRegistry();
+        broadcaster = new StockAlertBroadcaster();
+        broadcaster.bufferSize = bufferSize;
+        broadcaster.timeoutMs = 60_000;
+        broadcaster.senderThreads = senderThreads;
+        broadcaster.sendTimeoutMs = sendTimeoutMs;
+        broadcaster.meterRegistry = registry;
+        broadcaster.init();
+        return broadcaster;
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    private static StockThresholdCrossedEvent event(int qte) {
+        return new StockThresholdCrossedEvent(1L, "Stock 1", qte, 10, true, new Date());
+    }
+
+    private double subscribers() {
+        return registry.get("achat.stock.alerts.subscribers").gauge().value();
+    }
+
+    private double dropped() {
+        return registry.get("achat.stock.alerts.dropped").counter().count();
+    }
+
+    @Test
+    void testOnThresholdCrossed_StalledClientDoesNotDelayOthers() throws Exception {
+        // Arrange
+        broadcaster(8, 2, 60_000);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter recording = new RecordingEmitter(3);
+        broadcaster.subscribe(stalled);
+        broadcaster.subscribe(recording);
+
+        // Act
+        broadcaster.onThresholdCrossed(event(3));
+        broadcaster.onThresholdCrossed(event(2));
+        broadcaster.onThresholdCrossed(event(1));
+
+        // Assert
+        assertTrue(recording.sent.await(2, TimeUnit.SECONDS));
+        assertTrue(stalled.entered.await(2, TimeUnit.SECONDS));
+        assertEquals(2, subscribers());
+        assertEquals(0, dropped());
+    }
+
+    @Test
+    void testOnThresholdCrossed_FullBuffer_DropsClientAndClosesEmitter() throws Exception {
+        // Arrange - the first event is stuck in send(), the next two fill the buffer
+        broadcaster(2, 1, 60_000);
+        StalledEmitter stalled = new StalledEmitter();
+        broadcaster.subscribe(stalled);
+        broadcaster.onThresholdCrossed(event(4));
+        assertTrue(stalled.entered.await(2, TimeUnit.SECONDS));
+        broadcaster.onThresholdCrossed(event(3));
+        broadcaster.onThresholdCrossed(event(2));
+
+        // Act
+        broadcaster.onThresholdCrossed(event(1));
+
+        // Assert
+        assertEquals(0, subscribers());
+        assertEquals(1, dropped());
+        assertTrue(stalled.completed.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testEvictStalled_FreesTheOnlySenderThread() throws Exception {
+        // Arrange - a single sender thread, one client never returns from send()
+        broadcaster(8, 1, 100);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter recording = new RecordingEmitter(2);
+        broadcaster.subscribe(stalled);
+        broadcaster.subscribe(recording);
+
+        // Act
+        broadcaster.onThresholdCrossed(event(2));
+        assertTrue(stalled.entered.await(2, TimeUnit.SECONDS));
+        broadcaster.onThresholdCrossed(event(1));
+
+        // Assert
+        assertTrue(recording.sent.await(2, TimeUnit.SECONDS));
+        assertTrue(stalled.completed.await(2, TimeUnit.SECONDS));
+        assertEquals(1, subscribers());
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    void testDrain_SendFailure_RemovesClient() throws Exception {
+        // Arrange
+        broadcaster(8, 1, 60_000);
+        FailingEmitter failing = new FailingEmitter();
+        broadcaster.subscribe(failing);
+
+        // Act
+        broadcaster.onThresholdCrossed(event(1));
+
+        // Assert
+        assertTrue(failing.completed.await(2, TimeUnit.SECONDS));
+        assertEquals(0, subscribers());
+        assertEquals(1, dropped());
+    }
+
+    private static class ClosableEmitter extends SseEmitter {
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            completed.countDown();
+        }
+    }
+
+    private static class RecordingEmitter extends ClosableEmitter {
+        final CountDownLatch sent;
+
+        RecordingEmitter(int expected) {
+            sent = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.countDown();
+        }
+    }
+
+    /** A client whose connection never drains: send() only returns when interrupted */
+    private static class StalledEmitter extends ClosableEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new IOException("écriture interrompue", e);
+            }
+        }
+    }
+
+    private static class FailingEmitter extends ClosableEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package tn.esprit.rh.achat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import tn.esprit.rh.achat.dto.ReorderSuggestionDTO;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.StockRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockServiceImpl
+ * Tests that stock changes received from other replicas raise threshold alerts on transitions only,
+ * and that concurrent first requests for reorder suggestions share a single computation
+ */
+class StockServiceImplTest {
+
+    private StockServiceImpl stockService;
+    private StockRepository stockRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private ReorderSuggestions reorderSuggestions;
+    private Consumer<Long> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stockRepository = mock(StockRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        reorderSuggestions = mock(ReorderSuggestions.class);
+        InvalidationBus invalidationBus = mock(InvalidationBus.class);
+
+        LowStockIndex lowStockIndex = new LowStockIndex();
+        lowStockIndex.stockRepository = stockRepository;
+        lowStockIndex.meterRegistry = new SimpleMeterRegistry();
+
+        stockService = new StockServiceImpl();
+        stockService.stockRepository = stockRepository;
+        stockService.lowStockIndex = lowStockIndex;
+        stockService.eventPublisher = eventPublisher;
+        stockService.invalidationBus = invalidationBus;
+        stockService.reorderSuggestions = reorderSuggestions;
+        stockService.subscribe();
+
+        ArgumentCaptor<Consumer<Long>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq(Stock.class), captor.capture());
+        listener = captor.getValue();
+    }
+
+    private Stock stock(Long id, int qte, int qteMin) {
+        Stock stock = new Stock("Stock " + id, qte, qteMin);
+        stock.setIdStock(id);
+        return stock;
+    }
+
+    @Test
+    void testRemoteChange_EmitsAlertOnEachTransition() {
+        // Arrange
+        when(stockRepository.findById(1L))
+                .thenReturn(Optional.of(stock(1L, 5, 10)))
+                .thenReturn(Optional.of(stock(1L, 3, 10)))
+                .thenReturn(Optional.of(stock(1L, 20, 10)));
+        ArgumentCaptor<StockThresholdCrossedEvent> events = ArgumentCaptor.forClass(StockThresholdCrossedEvent.class);
+
+        // Act
+        listener.accept(1L);
+        listener.accept(1L);
+        listener.accept(1L);
+
+        // Assert
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().get(0).isEnRouge());
+        assertFalse(events.getAllValues().get(1).isEnRouge());
+        assertEquals(0, stockService.retrieveStocksEnRouge().size());
+    }
+
+    @Test
+    void testRemoteChange_AlreadyAppliedLocally_NoSecondAlert() {
+        // Arrange
+        Stock stock = stock(2L, 1, 10);
+        when(stockRepository.save(stock)).thenReturn(stock);
+        when(stockRepository.findById(2L)).thenReturn(Optional.of(stock));
+
+        // Act
+        stockService.updateStock(stock);
+        listener.accept(2L);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(StockThresholdCrossedEvent.class));
+    }
+
+    @Test
+    void testRemoteDelete_RemovesFromIndexWithoutAlert() {
+        // Arrange
+        when(stockRepository.findById(3L))
+                .thenReturn(Optional.of(stock(3L, 1, 10)))
+                .thenReturn(Optional.empty());
+
+        // Act
+        listener.accept(3L);
+        listener.accept(3L);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(StockThresholdCrossedEvent.class));
+        assertTrue(stockService.retrieveStocksEnRouge().isEmpty());
+    }
+
+    @Test
+    void testRetrieveReorderSuggestions_ConcurrentFirstCalls_ComputeOnce() throws Exception {
+        // Arrange - no result until the first computation ends
+        AtomicReference<List<ReorderSuggestionDTO>> dernieres = new AtomicReference<>();
+        CountDownLatch calculEnCours = new CountDownLatch(1);
+        CountDownLatch terminer = new CountDownLatch(1);
+        when(reorderSuggestions.getDernieres()).thenAnswer(invocation -> dernieres.get());
+        when(reorderSuggestions.calculer()).thenAnswer(invocation -> {
+            calculEnCours.countDown();
+            terminer.await();
+            dernieres.set(Collections.emptyList());
+            return dernieres.get();
+        });
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ReorderSuggestionDTO>> premier = clients.submit(stockService::retrieveReorderSuggestions);
+            assertTrue(calculEnCours.await(2, TimeUnit.SECONDS));
+            Future<List<ReorderSuggestionDTO>> second = clients.submit(stockService::retrieveReorderSuggestions);
+
+            // Act
+            terminer.countDown();
+
+            // Assert
+            assertSame(premier.get(2, TimeUnit.SECONDS), second.get(2, TimeUnit.SECONDS));
+            verify(reorderSuggestions, times(1)).calculer();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tn.esprit.rh.achat.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkheadFilter
+ * Requests beyond the permits wait, then get a 503; actuator is never limited
+ */
+class BulkheadFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new BulkheadFilter();
+        filter.permits = 1;
+        filter.acquireTimeoutMs = 50;
+        filter.meterRegistry = registry;
+        filter.init();
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/SpringMVC" + uri);
+        request.setContextPath("/SpringMVC");
+        return request;
+    }
+
+    @Test
+    void testDoFilter_RejectsWhenPermitsExhausted() throws Exception {
+        // Arrange - one request holds the only permit
+        CountDownLatch dansLeControleur = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        Thread occupant = new Thread(() -> {
+            try {
+                filter.doFilter(get("/stock/retrieve-all-stocks"), new MockHttpServletResponse(),
+                        new MockFilterChain(new HttpServlet() {
+                            @Override
+                            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                                dansLeControleur.countDown();
+                                try {
+                                    liberer.await();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                        }));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        occupant.start();
+        assertTrue(dansLeControleur.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse refusee = new MockHttpServletResponse();
+        filter.doFilter(get("/stock/retrieve-all-stocks"), refusee, new MockFilterChain());
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        filter.doFilter(get("/actuator/health"), actuator, new MockFilterChain());
+        liberer.countDown();
+        occupant.join();
+        MockHttpServletResponse acceptee = new MockHttpServletResponse();
+        filter.doFilter(get("/stock/retrieve-all-stocks"), acceptee, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, refusee.getStatus());
+        assertEquals("1", refusee.getHeader("Retry-After"));
+        assertEquals(200, actuator.getStatus());
+        assertEquals(200, acceptee.getStatus());
+        assertEquals(1, registry.get("achat.bulkhead.rejected").counter().count());
+        assertEquals(1, registry.get("achat.bulkhead.available").gauge().value());
+    }
+}
@@ -0,0 +1,89 @@
+package tn.esprit.rh.achat.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import tn.esprit.rh.achat.dto.CursorPageDTO;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeysetPage (cursor encoding and page building)
+ */
+class KeysetPageTest {
+
+    @Test
+    void testPageSize_DefaultAndCap() {
+        assertEquals(KeysetPage.DEFAULT_PAGE_SIZE, KeysetPage.pageSize(null));
+        assertEquals(KeysetPage.DEFAULT_PAGE_SIZE, KeysetPage.pageSize(0));
+        assertEquals(20, KeysetPage.pageSize(20));
+        assertEquals(KeysetPage.MAX_PAGE_SIZE, KeysetPage.pageSize(100_000));
+    }
+
+    @Test
+    void testAfterId_FirstPage() {
+        assertEquals(0L, KeysetPage.afterId(null));
+        assertEquals(0L, KeysetPage.afterId(""));
+    }
+
+    @Test
+    void testAfterId_RoundTrip() {
+        assertEquals(42L, KeysetPage.afterId(KeysetPage.encode("42")));
+    }
+
+    @Test
+    void testAfterId_InvalidCursor() {
+        assertThrows(ResponseStatusException.class, () -> KeysetPage.afterId("%%%"));
+        assertThrows(ResponseStatusException.class, () -> KeysetPage.afterId(KeysetPage.encode("abc")));
+    }
+
+    @Test
+    void testOf_WithNextPage() {
+        // Arrange - 3 rows read for a page of 2
+        List<Long> rows = Arrays.asList(5L, 7L, 9L);
+
+        // Act
+        CursorPageDTO<String> page = KeysetPage.of(rows, 2, id -> id, String::valueOf);
+
+        // Assert
+        assertEquals(Arrays.asList("5", "7"), page.getContent());
+        assertEquals(2, page.getSize());
+        assertEquals(7L, KeysetPage.afterId(page.getNextCursor()));
+    }
+
+    @Test
+    void testOf_LastPage() {
+        // Act
+        CursorPageDTO<String> page = KeysetPage.of(Arrays.asList(5L, 7L), 2, id -> id, String::valueOf);
+
+        // Assert
+        assertEquals(2, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testWithCursor_CompositeDateAndId() {
+        // Arrange
+        Date jour = new Date(1_710_460_800_000L);
+        List<Long> rows = Arrays.asList(9L, 7L, 5L);
+
+        // Act
+        CursorPageDTO<Long> page = KeysetPage.withCursor(rows, 2,
+                id -> KeysetPage.encode(KeysetPage.dateKey(id == 7L ? jour : null), String.valueOf(id)), id -> id);
+
+        // Assert
+        assertEquals(jour, KeysetPage.afterDate(page.getNextCursor()));
+        assertEquals(7L, KeysetPage.afterId(page.getNextCursor()));
+    }
+
+    @Test
+    void testAfterDate_FirstPageAndUndatedRow() {
+        assertNull(KeysetPage.afterDate(null));
+        assertNull(KeysetPage.afterDate(KeysetPage.encode("42")));
+        assertNull(KeysetPage.afterDate(KeysetPage.encode(KeysetPage.dateKey(null), "42")));
+        assertEquals(42L, KeysetPage.afterId(KeysetPage.encode(KeysetPage.dateKey(null), "42")));
+    }
+}
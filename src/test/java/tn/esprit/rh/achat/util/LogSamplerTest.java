@@ -0,0 +1,64 @@
+package tn.esprit.rh.achat.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LogSampler (sampled DEBUG logging of service rows)
+ */
+class LogSamplerTest {
+
+    private static final List<Integer> LIGNES = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+    private static Logger logger(boolean debug) {
+        Logger log = mock(Logger.class);
+        when(log.isDebugEnabled()).thenReturn(debug);
+        return log;
+    }
+
+    @Test
+    void testEchantillonner_OneRowInTaux() {
+        LogSampler sampler = new LogSampler(10, 1000);
+        List<Integer> journalisees = new ArrayList<>();
+
+        sampler.echantillonner(logger(true), LIGNES, journalisees::add);
+
+        assertEquals(Arrays.asList(10, 20, 30, 40, 50, 60, 70, 80, 90, 100), journalisees);
+    }
+
+    @Test
+    void testEchantillonner_CappedPerSecond() {
+        LogSampler sampler = new LogSampler(1, 5);
+        List<Integer> journalisees = new ArrayList<>();
+
+        sampler.echantillonner(logger(true), LIGNES, journalisees::add);
+
+        assertTrue(journalisees.size() <= 10, "au plus 5 lignes par seconde");
+        assertFalse(journalisees.isEmpty());
+    }
+
+    @Test
+    void testEchantillonner_NothingWhenDebugOffOrTauxZero() {
+        LogSampler sampler = new LogSampler(1, 1000);
+        List<Integer> journalisees = new ArrayList<>();
+
+        sampler.echantillonner(logger(false), LIGNES, journalisees::add);
+        sampler.configurer(0, null);
+        sampler.echantillonner(logger(true), LIGNES, journalisees::add);
+
+        assertTrue(journalisees.isEmpty());
+        assertFalse(sampler.echantillon(logger(true)));
+        assertEquals(0, sampler.configuration().get("taux"));
+        assertEquals(1000, sampler.configuration().get("maxParSeconde"));
+    }
+}
@@ -0,0 +1,52 @@
+package tn.esprit.rh.achat.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money (fixed-point amounts in millimes)
+ */
+class MoneyTest {
+
+    @Test
+    void testOf_RoundsToMillime() {
+        assertEquals(100L, Money.of(0.1));
+        assertEquals(120_500L, Money.of(120.5));
+        assertEquals(-1_500L, Money.of(-1.5));
+        assertEquals(120.5, Money.toDouble(120_500L));
+        assertEquals(new BigDecimal("120.500"), Money.toBigDecimal(120_500L));
+    }
+
+    @Test
+    void testPercentage_RoundsHalfAwayFromZero() {
+        assertEquals(21L, Money.percentage(700L, 3));
+        assertEquals(1L, Money.percentage(50L, 1));
+        assertEquals(0L, Money.percentage(49L, 1));
+        assertEquals(-1L, Money.percentage(-50L, 1));
+        assertEquals(0L, Money.percentage(12_345L, 0));
+    }
+
+    @Test
+    void testSumOfTenths_IsExact() {
+        long total = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            total = Money.add(total, Money.of(0.1));
+        }
+        assertEquals(Money.of(100_000), total);
+    }
+
+    @Test
+    void testOverflow_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void testRatio() {
+        assertEquals(50.0f, Money.ratio(500L, 1_000L));
+        assertEquals(0.0f, Money.ratio(500L, 0L));
+    }
+}
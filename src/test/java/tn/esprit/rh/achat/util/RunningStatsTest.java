@@ -0,0 +1,61 @@
+package tn.esprit.rh.achat.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RunningStats (one-pass mean and variance)
+ */
+class RunningStatsTest {
+
+    @Test
+    void testAdd_MatchesTwoPassMeanAndVariance() {
+        double[] valeurs = { 4, 7, 13, 16, 1e6 + 4, 1e6 + 7 };
+        RunningStats stats = new RunningStats();
+        for (double v : valeurs) {
+            stats.add(v);
+        }
+
+        double moyenne = 0;
+        for (double v : valeurs) {
+            moyenne += v / valeurs.length;
+        }
+        double variance = 0;
+        for (double v : valeurs) {
+            variance += (v - moyenne) * (v - moyenne) / valeurs.length;
+        }
+        assertEquals(6, stats.getCount());
+        assertEquals(moyenne, stats.getMean(), 1e-6);
+        assertEquals(variance, stats.getVariance(), 1e-3);
+    }
+
+    @Test
+    void testAddZeros_SameAsAddingZerosOneByOne() {
+        RunningStats enBloc = new RunningStats();
+        RunningStats unParUn = new RunningStats();
+        for (double v : new double[] { 3, 9, 12 }) {
+            enBloc.add(v);
+            unParUn.add(v);
+        }
+        enBloc.addZeros(362);
+        for (int i = 0; i < 362; i++) {
+            unParUn.add(0);
+        }
+
+        assertEquals(365, enBloc.getCount());
+        assertEquals(unParUn.getMean(), enBloc.getMean(), 1e-12);
+        assertEquals(unParUn.getVariance(), enBloc.getVariance(), 1e-9);
+    }
+
+    @Test
+    void testEmpty() {
+        RunningStats stats = new RunningStats();
+        stats.addZeros(0);
+        assertEquals(0, stats.getCount());
+        assertEquals(0.0, stats.getVariance());
+        stats.addZeros(10);
+        assertEquals(0.0, stats.getMean());
+        assertEquals(0.0, stats.getStandardDeviation());
+    }
+}
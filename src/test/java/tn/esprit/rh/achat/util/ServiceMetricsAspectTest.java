@@ -0,0 +1,85 @@
+package tn.esprit.rh.achat.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import tn.esprit.rh.achat.entities.Stock;
+import tn.esprit.rh.achat.repositories.StockRepository;
+import tn.esprit.rh.achat.services.IStockService;
+import tn.esprit.rh.achat.services.StockServiceImpl;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ServiceMetricsAspect
+ * A proxied StockServiceImpl records latency, SQL count and allocation per method
+ */
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private StockRepository stockRepository;
+    private IStockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ServiceMetricsAspect aspect = new ServiceMetricsAspect();
+        aspect.meterRegistry = registry;
+
+        stockRepository = mock(StockRepository.class);
+        StockServiceImpl target = new StockServiceImpl();
+        ReflectionTestUtils.setField(target, "stockRepository", stockRepository);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        stockService = factory.getProxy();
+    }
+
+    @Test
+    void testMesurer_RecordsLatencyAndStatementsPerMethod() {
+        // Arrange - each lookup "prepares" two statements
+        SqlStatementCounter inspector = new SqlStatementCounter();
+        when(stockRepository.findById(1L)).thenAnswer(invocation -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            return Optional.of(new Stock());
+        });
+
+        // Act
+        stockService.retrieveStock(1L);
+        stockService.retrieveStock(1L);
+
+        // Assert
+        Timer latence = registry.get("achat.service.latence")
+                .tags("service", "StockServiceImpl", "method", "retrieveStock", "exception", "none")
+                .timer();
+        assertEquals(2, latence.count());
+        DistributionSummary requetes = registry.get("achat.service.requetes")
+                .tags("service", "StockServiceImpl", "method", "retrieveStock")
+                .summary();
+        assertEquals(2, requetes.count());
+        assertEquals(4, requetes.totalAmount());
+    }
+
+    @Test
+    void testMesurer_TagsExceptionAndRethrows() {
+        // Arrange
+        when(stockRepository.findById(2L)).thenThrow(new IllegalStateException("panne"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> stockService.retrieveStock(2L));
+
+        // Assert
+        assertEquals(1, registry.get("achat.service.latence")
+                .tags("method", "retrieveStock", "exception", "IllegalStateException")
+                .timer().count());
+        assertNull(registry.find("achat.service.latence").tags("exception", "none").timer());
+    }
+}
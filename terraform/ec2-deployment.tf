@@ -65,7 +65,7 @@ resource "aws_instance" "achat_app" {
                 -e SPRING_DATASOURCE_URL=jdbc:mysql://mysql:3306/achatdb?useUnicode=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&serverTimezone=UTC \
                 -e SPRING_DATASOURCE_USERNAME=achat_user \
                 -e SPRING_DATASOURCE_PASSWORD=achat_password \
-                -e SPRING_JPA_HIBERNATE_DDL_AUTO=update \
+                -e SPRING_JPA_HIBERNATE_DDL_AUTO=validate \
                 -p 8089:8089 \
                 ${var.docker_image}:${var.docker_tag}
               